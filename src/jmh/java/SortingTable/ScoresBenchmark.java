@@ -0,0 +1,84 @@
+package SortingTable;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson round-trips of the high-score list through a file, configured the way {@link BoardController}
+ * loads and saves {@code highscores.json}, compared with appending one score to a {@link ScoreJournal}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ScoresBenchmark {
+    @Param({"10", "10000", "1000000"})
+    public int entries;
+
+    private ObjectMapper objectMapper;
+    private List<Scores> scores;
+    private File file;
+    private ScoreJournal journal;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        scores = new ArrayList<>(entries);
+        LocalDateTime begin = LocalDateTime.of(2024, 10, 7, 11, 5, 32);
+        for (int i = 0; i < entries; i++) {
+            scores.add(new Scores("player" + (i % 100), begin.plusMinutes(i), begin.plusMinutes(i + 2), 75 + i % 50, true));
+        }
+        file = Files.createTempFile("highscores", ".json").toFile();
+        objectMapper.writeValue(file, scores);
+        journal = new ScoreJournal(Files.createTempDirectory("scores").resolve("highscores.json"), objectMapper,
+                Integer.MAX_VALUE);
+        journal.load();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        file.delete();
+        journal.close();
+    }
+
+    @Benchmark
+    public File save() throws IOException {
+        objectMapper.writeValue(file, scores);
+        return file;
+    }
+
+    @Benchmark
+    public int appendToJournal() throws IOException {
+        journal.append(scores.get(0));
+        return journal.getScores().size();
+    }
+
+    @Benchmark
+    public List<Scores> load() throws IOException {
+        return objectMapper.readValue(file, new TypeReference<List<Scores>>() {});
+    }
+}
@@ -0,0 +1,101 @@
+package solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks for the {@link Game} rules model and its packed counterparts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    private final int[] tile = {1, 1};
+    private final int[] empty = {1, 0};
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+    private Game game;
+    private Game other;
+    private long state;
+
+    @Setup
+    public void setUp() {
+        game = new Game();
+        other = game.clone();
+        state = PackedState.encode(game);
+    }
+
+    @Benchmark
+    public boolean isLegalMove() {
+        return game.isLegalMove(tile, empty);
+    }
+
+    @Benchmark
+    public Set<int[][]> getLegalMoves() {
+        return game.getLegalMoves();
+    }
+
+    @Benchmark
+    public int getLegalGridMovesIntoBuffer() {
+        return game.getLegalGridMoves(moveBuffer);
+    }
+
+    /**
+     * Moves a tile into the empty cell and back, so the position stays the same across invocations.
+     */
+    @Benchmark
+    public int makeMoveAndBack() {
+        game.makeMove(tile, empty);
+        game.makeMove(empty, tile);
+        return game.getMoves();
+    }
+
+    @Benchmark
+    public Game cloneGame() {
+        return game.clone();
+    }
+
+    @Benchmark
+    public boolean equalsGame() {
+        return game.equals(other);
+    }
+
+    @Benchmark
+    public int hashCodeGame() {
+        return game.hashCode();
+    }
+
+    @Benchmark
+    public boolean isSolved() {
+        return game.isSolved();
+    }
+
+    @Benchmark
+    public long encode() {
+        return PackedState.encode(game);
+    }
+
+    @Benchmark
+    public void generatePacked(Blackhole blackhole) {
+        int count = MoveGenerator.generate(state, moveBuffer);
+        for (int i = 0; i < count; i++) {
+            blackhole.consume(PackedState.applyMove(state, PackedState.moveFrom(moveBuffer[i]),
+                    PackedState.moveTo(moveBuffer[i])));
+        }
+    }
+}
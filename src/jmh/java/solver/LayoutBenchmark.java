@@ -0,0 +1,60 @@
+package solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks for the {@link Game} rules on each built-in {@link BoardLayout}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LayoutBenchmark {
+    @Param({"CLASSIC", "WIDE", "LARGE"})
+    public String layout;
+
+    private Game game;
+    private int[] tile;
+    private int[] empty;
+    private int[] moveBuffer;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        BoardLayout boardLayout = (BoardLayout) BoardLayout.class.getField(layout).get(null);
+        game = new Game(boardLayout);
+        tile = new int[]{boardLayout.rows() - 1, 1};
+        empty = new int[]{boardLayout.rows() - 1, 0};
+        moveBuffer = new int[boardLayout.maxMoves()];
+    }
+
+    @Benchmark
+    public int getLegalGridMovesIntoBuffer() {
+        return game.getLegalGridMoves(moveBuffer);
+    }
+
+    @Benchmark
+    public int makeMoveAndBack() {
+        game.makeMove(tile, empty);
+        game.makeMove(empty, tile);
+        return game.getMoves();
+    }
+
+    @Benchmark
+    public boolean isSolved() {
+        return game.isSolved();
+    }
+}
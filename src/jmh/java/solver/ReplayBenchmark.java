@@ -0,0 +1,51 @@
+package solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Replay#verify()} per move on a long random game.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private static final int MOVES = 100_000;
+
+    private Replay replay;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(19);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        byte[] moves = new byte[MOVES];
+        long state = PackedState.START;
+        for (int i = 0; i < MOVES; i++) {
+            int move = buffer[random.nextInt(MoveGenerator.generate(state, buffer))];
+            moves[i] = (byte) move;
+            state = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+        }
+        replay = new Replay(PackedState.START, moves);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public Replay.Verification verify() {
+        return replay.verify();
+    }
+}
@@ -0,0 +1,64 @@
+package solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solver throughput on positions scrambled a fixed number of random moves away from the solved board.
+ * Divide the reported nodes by the time per operation to get nodes per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+    @Param({"20", "40"})
+    public int scramble;
+
+    private long[] positions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        positions = new long[64];
+        for (int i = 0; i < positions.length; i++) {
+            long state = PackedState.SOLVED;
+            for (int step = 0; step < scramble; step++) {
+                int move = moves[random.nextInt(MoveGenerator.generate(state, moves))];
+                state = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+            }
+            positions[i] = state;
+        }
+    }
+
+    private long nextPosition() {
+        next = (next + 1) % positions.length;
+        return positions[next];
+    }
+
+    @Benchmark
+    public Solution aStar() {
+        return new AStarSolver().solve(nextPosition());
+    }
+
+    @Benchmark
+    public Solution breadthFirst() {
+        return new BreadthFirstSolver().solve(nextPosition());
+    }
+}
@@ -2,6 +2,7 @@ package SortingTable;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -15,17 +16,26 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import metrics.MoveEvent;
+import metrics.MoveEventSink;
+import metrics.RenderEvent;
 import solver.Game;
+import solver.PackedState;
+import solver.Replay;
+import solver.Solution;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
+import static org.apache.logging.log4j.util.Unbox.box;
+
 /**
  * The {@code BoardController} class is the controller for the UI. It handles the game logic and user interactions.
  */
@@ -42,23 +52,47 @@ public class BoardController {
     @FXML
     private Label startTimeLabel;
 
+    @FXML
+    private Label hintLabel;
+
     private Game game;
+    private Button[][] cells;
+    private char[][] rendered;
     private Button selectedButton;
+    private Button hintedButton;
     private int[] selectedPosition;
 
     private String playerName;
     private LocalDateTime startTime;
     private List<Scores> highScores;
+    private ScoreJournal scoreJournal;
+    private ScoreWriter scoreWriter;
+    private MoveEventSink moveSink;
+    private final Replay.Recorder replay = new Replay.Recorder(PackedState.START);
+    private final Leaderboard leaderboard = new Leaderboard();
 
     private static final String SCORES_FILE = "highscores.json";
+    private static final String QUARANTINE_FILE = "highscores.quarantine.jsonl";
+    private static final String MOVES_FILE = "moves.bin";
+    private static final int MOVE_SINK_CAPACITY = 4096;
+    private static final String TILE_CLASS = "tile";
+    private static final String EMPTY_CLASS = "empty-cell";
+    private static final String BLACK_BOX_CLASS = "black-box";
+    private static final String SELECTED_CLASS = "selected";
+    private static final String HINT_CLASS = "hint";
+    private static final String[] TILE_TEXT = tileTexts();
     private static final Logger logger = LogManager.getLogger(BoardController.class);
+    private static final Histogram MOVE_NANOS = MetricsRegistry.global().histogram("game.move.nanos");
+    private static final Histogram RENDER_NANOS = MetricsRegistry.global().histogram("board.render.nanos");
 
     private ObjectMapper objectMapper;
+    private final HintService hintService = new HintService();
 
     public void initialize() {
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         loadHighScores();
+        openMoveSink();
         promptPlayerName();
         startNewGame();
     }
@@ -80,20 +114,45 @@ public class BoardController {
     }
 
     private void startNewGame() {
+        hintService.cancel();
+        clearHint();
+        clearSelection();
         game = new Game();
+        replay.reset(PackedState.encode(game));
         startTime = LocalDateTime.now();
         startTimeLabel.setText("Start Time: " + startTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
         updateBoard();
     }
 
-    private void selectTile(int row, int col, Button button) {
+    private void selectTile(int row, int col) {
+        clearSelection();
+        selectedButton = cells[row][col];
+        selectedPosition = new int[]{row, col};
+        selectedButton.getStyleClass().add(SELECTED_CLASS);
+    }
+
+    private void clearSelection() {
         if (selectedButton != null) {
-            selectedButton.setStyle("");
+            selectedButton.getStyleClass().remove(SELECTED_CLASS);
         }
+        selectedButton = null;
+        selectedPosition = null;
+    }
 
-        selectedButton = button;
-        selectedPosition = new int[]{row, col};
-        button.setStyle("-fx-border-color: red; -fx-border-width: 2px;");
+    private void clearHint() {
+        if (hintedButton != null) {
+            hintedButton.getStyleClass().remove(HINT_CLASS);
+            hintedButton = null;
+        }
+        hintLabel.setText("");
+    }
+
+    private void onCellClicked(int row, int col) {
+        if (game.getBoard()[row][col] != ' ') {
+            selectTile(row, col);
+        } else {
+            moveTile(row, col);
+        }
     }
 
     private void moveTile(int targetRow, int targetCol) {
@@ -102,47 +161,166 @@ public class BoardController {
             int[] to = new int[]{targetRow, targetCol};
 
             if (game.isLegalMove(from, to)) {
-                game.makeMove(from, to);
-                selectedButton.setStyle("");
+                MoveEvent event = new MoveEvent();
+                event.begin();
+                long begin = System.nanoTime();
+                hintService.cancel();
+                clearHint();
+                boolean solved = applyMove(game, from, to, replay, moveSink);
+                int moves = game.getMoves();
+                clearSelection();
                 updateBoard();
-                selectedButton = null;
-                selectedPosition = null;
+                MOVE_NANOS.record(System.nanoTime() - begin);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.fromRow = from[0];
+                    event.fromCol = from[1];
+                    event.toRow = targetRow;
+                    event.toCol = targetCol;
+                    event.moves = moves;
+                    event.solved = solved;
+                    event.commit();
+                }
 
-                if (game.isSolved()) {
+                if (solved) {
                     showGameSolvedMessage();
                 }
-                logger.info("Player clicked on {} {} at {} {}", from[0], from[1], targetRow, targetCol);
+                logger.info("Player clicked on {} {} at {} {}", box(from[0]), box(from[1]), box(targetRow),
+                        box(targetCol));
             }
         }
     }
 
-    private void updateBoard() {
+    /**
+     * Makes a legal move and records it in the replay and the move sink with the move count it reached.
+     * This happens before anything reacts to the move, so a solving move is recorded before the solved
+     * game is replaced by a new one.
+     *
+     * @return {@code true} if the move solved the puzzle
+     */
+    static boolean applyMove(Game game, int[] from, int[] to, Replay.Recorder replay, MoveEventSink moveSink) {
+        game.makeMove(from, to);
+        replay.add(from[0], from[1], to[0], to[1]);
+        if (moveSink != null) {
+            moveSink.record(from[0], from[1], to[0], to[1], game.getMoves());
+        }
+        return game.isSolved();
+    }
+
+    /**
+     * Creates the buttons of the board once. Later moves only update the cells that changed.
+     */
+    private void createBoard() {
         char[][] boardArray = game.getBoard();
-        board.getChildren().clear();
+        cells = new Button[boardArray.length][];
+        rendered = new char[boardArray.length][];
         for (int row = 0; row < boardArray.length; row++) {
+            cells[row] = new Button[boardArray[row].length];
+            rendered[row] = new char[boardArray[row].length];
             for (int col = 0; col < boardArray[row].length; col++) {
                 Button button = new Button();
                 button.setPrefSize(100, 100);
-
                 if (game.isBlackBox(row, col)) {
-                    button.setStyle("-fx-background-color: black;");
+                    button.getStyleClass().add(BLACK_BOX_CLASS);
                 } else {
-                    char value = boardArray[row][col];
-                    button.setText(value == ' ' ? "" : String.valueOf(value));
                     final int r = row;
                     final int c = col;
+                    button.setOnAction(e -> onCellClicked(r, c));
+                    renderCell(button, boardArray[row][col]);
+                }
+                rendered[row][col] = boardArray[row][col];
+                cells[row][col] = button;
+                board.add(button, col, row);
+            }
+        }
+    }
 
-                    if (value != ' ') {
-                        button.setOnAction(e -> selectTile(r, c, button));
-                    } else {
-                        button.setOnAction(e -> moveTile(r, c));
+    /**
+     * Brings the buttons in line with the game, touching only the cells whose value changed since the
+     * last render.
+     */
+    private void updateBoard() {
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        long begin = System.nanoTime();
+        char[][] boardArray = game.getBoard();
+        boolean fullRender = cells == null;
+        int updated = 0;
+        if (fullRender) {
+            createBoard();
+        } else {
+            for (int row = 0; row < boardArray.length; row++) {
+                for (int col = 0; col < boardArray[row].length; col++) {
+                    char value = boardArray[row][col];
+                    if (rendered[row][col] != value && !game.isBlackBox(row, col)) {
+                        renderCell(cells[row][col], value);
+                        rendered[row][col] = value;
+                        updated++;
                     }
                 }
-
-                board.add(button, col, row);
             }
         }
         movesLabel.setText("Moves: " + game.getMoves());
+        RENDER_NANOS.record(System.nanoTime() - begin);
+        event.end();
+        if (event.shouldCommit()) {
+            event.cellsUpdated = updated;
+            event.fullRender = fullRender;
+            event.commit();
+        }
+    }
+
+    private static void renderCell(Button button, char value) {
+        button.setText(value == ' ' ? "" : value < TILE_TEXT.length ? TILE_TEXT[value] : String.valueOf(value));
+        List<String> styleClasses = button.getStyleClass();
+        if (value == ' ') {
+            styleClasses.remove(TILE_CLASS);
+            if (!styleClasses.contains(EMPTY_CLASS)) {
+                styleClasses.add(EMPTY_CLASS);
+            }
+        } else {
+            styleClasses.remove(EMPTY_CLASS);
+            if (!styleClasses.contains(TILE_CLASS)) {
+                styleClasses.add(TILE_CLASS);
+            }
+        }
+    }
+
+    private Button buttonAt(int row, int col) {
+        return cells == null ? null : cells[row][col];
+    }
+
+    @FXML
+    public void showHint() {
+        long position = PackedState.encode(game);
+        hintLabel.setText("Hint: thinking...");
+        hintService.request(game, solution -> Platform.runLater(() -> showHintResult(position, solution)));
+        logger.info("Hint requested");
+    }
+
+    private void showHintResult(long position, Solution solution) {
+        if (PackedState.encode(game) != position) {
+            return; // the board changed while the hint was computed
+        }
+        if (solution.length() == 0) {
+            hintLabel.setText("Hint: already solved");
+            return;
+        }
+        int[][] move = solution.getMoves().get(0);
+        Button button = buttonAt(move[0][0], move[0][1]);
+        if (button != null && button != selectedButton) {
+            button.getStyleClass().add(HINT_CLASS);
+            hintedButton = button;
+        }
+        if (!solution.isComplete()) {
+            hintLabel.setText("Hint: try this move");
+            logger.info("Hint: move {} {} to {} {}, search ran out of time", box(move[0][0]), box(move[0][1]),
+                    box(move[1][0]), box(move[1][1]));
+            return;
+        }
+        hintLabel.setText("Hint: " + solution.length() + " moves left");
+        logger.info("Hint: move {} {} to {} {}, {} moves left", box(move[0][0]), box(move[0][1]), box(move[1][0]),
+                box(move[1][1]), box(solution.length()));
     }
 
     @FXML
@@ -153,10 +331,7 @@ public class BoardController {
 
     @FXML
     public void showHighScores() {
-        List<Scores> topScores = highScores.stream()
-                .sorted(Comparator.comparingInt(Scores::getSteps))
-                .limit(10)
-                .toList();
+        List<Scores> topScores = leaderboard.top();
 
         StringBuilder scoreText = new StringBuilder();
         int rank = 1;
@@ -176,42 +351,78 @@ public class BoardController {
     private void showGameSolvedMessage() {
         LocalDateTime endTime = LocalDateTime.now();
         Scores score = new Scores(playerName, startTime, endTime, game.getMoves(), true);
-        highScores.add(score);
-        saveHighScores();
+        score.setReplay(replay.toReplay().toBytes());
+        saveHighScores(score);
+        leaderboard.add(score);
         logger.info("The player that won is {} in {} moves and {} duration", playerName, game.getMoves(), endTime);
 
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Puzzle Solved");
         alert.setHeaderText(null);
-        alert.setContentText("Congratulations! You solved the puzzle.");
+        alert.setContentText("Congratulations! You solved the puzzle.\nYour rank: " + leaderboard.rankOf(score)
+                + " of " + leaderboard.size());
         alert.showAndWait();
 
         startNewGame();
     }
 
     private void loadHighScores() {
+        scoreJournal = new ScoreJournal(Path.of(SCORES_FILE), objectMapper);
         try {
-            File file = new File(SCORES_FILE);
-            if (file.exists()) {
-                highScores = objectMapper.readValue(file, new TypeReference<List<Scores>>() {});
-            } else {
-                highScores = new ArrayList<>();
-            }
+            highScores = scoreJournal.load();
         } catch (IOException e) {
             logger.error("Failed to load high scores", e);
             e.printStackTrace();
-            highScores = new ArrayList<>();
+            highScores = scoreJournal.getScores();
         }
+        try {
+            new ScoreVerifier().quarantine(scoreJournal, Path.of(QUARANTINE_FILE), objectMapper);
+        } catch (IOException e) {
+            logger.error("Failed to quarantine invalid high scores", e);
+        }
+        leaderboard.addAll(highScores);
+        scoreWriter = new ScoreWriter(scoreJournal);
     }
 
-    private void saveHighScores() {
+    private void openMoveSink() {
         try {
-            objectMapper.writeValue(new File(SCORES_FILE), highScores);
-            logger.info("Saved high scores to " + SCORES_FILE);
+            moveSink = new MoveEventSink(Path.of(MOVES_FILE), MOVE_SINK_CAPACITY);
         } catch (IOException e) {
-            logger.error("Failed to save high scores", e);
-            e.printStackTrace();
+            logger.error("Failed to open move log {}, moves will not be recorded", MOVES_FILE, e);
+        }
+    }
+
+    private void saveHighScores(Scores score) {
+        scoreWriter.submit(score);
+        logger.info("Queued high score for " + SCORES_FILE);
+    }
+
+    /**
+     * Stops the background work of the controller, writing any high scores that are still queued.
+     */
+    public void shutdown() {
+        hintService.shutdown();
+        try {
+            scoreWriter.close();
+        } catch (IOException e) {
+            logger.error("Failed to close high score journal", e);
+        }
+        if (moveSink != null) {
+            try {
+                moveSink.close();
+            } catch (IOException e) {
+                logger.error("Failed to close move log", e);
+            }
+        }
+        logger.info("Metrics:\n{}", MetricsRegistry.global().report());
+    }
+
+    private static String[] tileTexts() {
+        String[] texts = new String[128];
+        for (char value = 0; value < texts.length; value++) {
+            texts[value] = String.valueOf(value);
         }
+        return texts;
     }
 
     @FXML
@@ -11,12 +11,14 @@ import java.io.IOException;
 public class BoardGameApplication extends Application {
 
     private static Stage primaryStage;
+    private BoardController controller;
 
     @Override
     public void start(Stage primaryStage) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/board.fxml"));
             Parent root = loader.load();
+            controller = loader.getController();
             Scene scene = new Scene(root);
             primaryStage.setScene(scene);
             primaryStage.setTitle("Sorting Game");
@@ -28,6 +30,13 @@ public class BoardGameApplication extends Application {
 
     }
 
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static Stage getPrimaryStage() {
         return primaryStage;
     }
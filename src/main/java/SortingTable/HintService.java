@@ -0,0 +1,191 @@
+package SortingTable;
+
+import metrics.SolveEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import solver.BidirectionalSolver;
+import solver.CachingSolver;
+import solver.DistanceTable;
+import solver.Game;
+import solver.IdaStarSolver;
+import solver.PatternDatabase;
+import solver.SolutionCache;
+import solver.Solution;
+import solver.Solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The {@code HintService} class computes hints off the JavaFX Application Thread. Requests run on a single
+ * low-priority daemon thread with a queue of one, and a new request cancels the one still in flight, so
+ * repeated clicks never pile up work. The solver is loaded on another background thread, so creating the
+ * service never blocks. The distance table is used when {@value DistanceTable#DEFAULT_FILE} is present.
+ * Otherwise an IDA* search stops after {@link #SEARCH_BUDGET} and suggests the first move of the best path
+ * it found; its heuristic is the pattern database in {@value PatternDatabase#DEFAULT_FILE}, loaded once,
+ * when there is one, and the Manhattan distance otherwise or while loading is still under way. Searched
+ * solutions go through a {@link SolutionCache} that is reloaded from {@value #CACHE_FILE} and written back
+ * by {@link #shutdown()}. A search that runs out of time caches nothing, so each position it gave up on is
+ * then solved to the end by a {@link BidirectionalSolver} on a third background thread, and the shortest
+ * solution found is cached with every position along it. Positions hinted in earlier sessions, such as the
+ * start position, are then answered without a search.
+ */
+public class HintService {
+    /** Time the search may take when there is no distance table. */
+    public static final Duration SEARCH_BUDGET = Duration.ofMillis(50);
+    /** Location of the solution cache snapshot. */
+    public static final String CACHE_FILE = "solutions.cache";
+    /** Positions kept in the solution cache, about 2 MB. */
+    public static final int CACHE_CAPACITY = 1 << 16;
+
+    private static final Logger logger = LogManager.getLogger(HintService.class);
+
+    private final CompletableFuture<Solver> solver;
+    private final Solver fallback = new IdaStarSolver(SEARCH_BUDGET);
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor background;
+    private Future<?> pending;
+
+    /**
+     * Starts loading the distance table, pattern database and solution cache on a background thread and
+     * returns right away. Until they are loaded, hints come from the budgeted search with the Manhattan
+     * heuristic.
+     */
+    public HintService() {
+        this(HintService::defaultSolver);
+    }
+
+    public HintService(Solver solver) {
+        this(CompletableFuture.completedFuture(solver), backgroundExecutor("hint-cache"));
+    }
+
+    /**
+     * @param loader builds the solver on a background thread, given the executor for cache completions
+     */
+    HintService(Function<Executor, Solver> loader) {
+        this(backgroundExecutor("hint-cache"), loader);
+    }
+
+    private HintService(ThreadPoolExecutor background, Function<Executor, Solver> loader) {
+        this(CompletableFuture.supplyAsync(() -> loader.apply(background), HintService::startLoader), background);
+    }
+
+    private HintService(CompletableFuture<Solver> solver, ThreadPoolExecutor background) {
+        this.solver = solver.exceptionally(e -> {
+            logger.error("Failed to load the hint solver, falling back to a search", e);
+            return new IdaStarSolver(SEARCH_BUDGET);
+        });
+        this.executor = backgroundExecutor("hint-solver");
+        this.background = background;
+    }
+
+    private static void startLoader(Runnable runnable) {
+        Thread thread = new Thread(runnable, "hint-loader");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Returns a single low-priority daemon thread with a queue of one that drops the oldest waiting task.
+     */
+    private static ThreadPoolExecutor backgroundExecutor(String name) {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    /**
+     * Solves a copy of {@code game} in the background and passes the solution to {@code callback} on the
+     * solver thread. Any earlier request that has not finished yet is cancelled.
+     */
+    public synchronized void request(Game game, Consumer<Solution> callback) {
+        cancel();
+        Game copy = game.clone();
+        pending = executor.submit(() -> {
+            Solver active = solver.getNow(fallback);
+            Solution solution = active.solve(copy);
+            SolveEvent.record(active.getClass().getSimpleName(), solution.getNodesExpanded(),
+                    solution.getElapsed().toNanos(), solution.length());
+            if (!Thread.currentThread().isInterrupted() && solution.isFound()) {
+                logger.debug("Hint found: {}", solution);
+                callback.accept(solution);
+            }
+        });
+    }
+
+    /**
+     * Cancels the request in flight, if any.
+     */
+    public synchronized void cancel() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * Stops the solver threads and writes the solution cache, if there is one and it has been loaded.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        background.shutdownNow();
+        if (solver.getNow(null) instanceof CachingSolver caching) {
+            try {
+                caching.getCache().snapshot(Path.of(CACHE_FILE));
+                logger.info("Saved solution cache: {}", caching.getCache().stats());
+            } catch (IOException e) {
+                logger.error("Failed to save solution cache to {}", CACHE_FILE, e);
+            }
+        }
+    }
+
+    private static Solver defaultSolver(Executor background) {
+        Path table = Path.of(DistanceTable.DEFAULT_FILE);
+        if (Files.exists(table)) {
+            try {
+                return DistanceTable.open(table);
+            } catch (IOException e) {
+                logger.error("Failed to open distance table, falling back to a search", e);
+            }
+        }
+        SolutionCache cache;
+        try {
+            cache = SolutionCache.load(Path.of(CACHE_FILE), CACHE_CAPACITY);
+        } catch (IOException e) {
+            logger.error("Failed to load solution cache, starting empty", e);
+            cache = new SolutionCache(CACHE_CAPACITY);
+        }
+        return new CachingSolver(searchSolver(Path.of(PatternDatabase.DEFAULT_FILE)), cache,
+                new BidirectionalSolver(), background);
+    }
+
+    /**
+     * Returns the budgeted search, guided by the pattern database in {@code patterns} if the file exists.
+     */
+    static Solver searchSolver(Path patterns) {
+        if (Files.exists(patterns)) {
+            try {
+                return new IdaStarSolver(PatternDatabase.load(patterns), SEARCH_BUDGET);
+            } catch (IOException e) {
+                logger.error("Failed to load pattern database, falling back to the Manhattan heuristic", e);
+            }
+        }
+        return new IdaStarSolver(SEARCH_BUDGET);
+    }
+}
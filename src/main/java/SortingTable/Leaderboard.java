@@ -0,0 +1,181 @@
+package SortingTable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * The {@code Leaderboard} class indexes scores as they are added so the high-score dialog never has to sort
+ * the whole history. Scores are ordered by steps, then by duration, then by arrival.
+ * <ul>
+ *     <li>The best {@code capacity} scores live in a bounded red-black tree: O(log K) per add.</li>
+ *     <li>Each player's best score is kept in a hash map.</li>
+ *     <li>Rank lookups over all scores use a treap of every score, each node counting the scores below it,
+ *     so adds and rank lookups take O(log n) whatever the step totals and durations are.</li>
+ * </ul>
+ */
+public class Leaderboard {
+    /** Number of scores shown in the high-score dialog. */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::steps)
+            .thenComparingLong(Entry::durationMillis)
+            .thenComparingLong(Entry::seq);
+    // Longest duration whose milliseconds fit in a long; longer ones count as Long.MAX_VALUE
+    private static final Duration MAXIMUM_DURATION = Duration.ofMillis(Long.MAX_VALUE);
+
+    private final int capacity;
+    private final TreeSet<Entry> top = new TreeSet<>(ORDER);
+    private final Map<String, Entry> bestByPlayer = new HashMap<>();
+    private final Random priorities = new Random(0);
+    private Node root;
+    private long size;
+
+    private record Entry(Scores score, int steps, long durationMillis, long seq) {
+    }
+
+    // Treap node: ordered by entry, heap-ordered by priority
+    private static final class Node {
+        final Entry entry;
+        final int priority;
+        Node left;
+        Node right;
+        long count = 1;
+
+        Node(Entry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    public Leaderboard() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Leaderboard(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public void addAll(Collection<Scores> scores) {
+        for (Scores score : scores) {
+            add(score);
+        }
+    }
+
+    public synchronized void add(Scores score) {
+        Entry entry = new Entry(score, Math.max(score.getSteps(), 0), durationMillis(score), size++);
+        if (top.size() < capacity || ORDER.compare(entry, top.last()) < 0) {
+            top.add(entry);
+            if (top.size() > capacity) {
+                top.pollLast();
+            }
+        }
+        bestByPlayer.merge(score.getName(), entry, (current, candidate) ->
+                ORDER.compare(candidate, current) < 0 ? candidate : current);
+        root = insert(root, new Node(entry, priorities.nextInt()));
+    }
+
+    /**
+     * Returns the best scores, best first.
+     */
+    public synchronized List<Scores> top() {
+        List<Scores> result = new ArrayList<>(top.size());
+        for (Entry entry : top) {
+            result.add(entry.score());
+        }
+        return result;
+    }
+
+    public synchronized Optional<Scores> bestOf(String player) {
+        Entry entry = bestByPlayer.get(player);
+        return entry == null ? Optional.empty() : Optional.of(entry.score());
+    }
+
+    /**
+     * Returns the 1-based position a result would take among all scores added so far; results that tie
+     * with existing ones share their rank.
+     */
+    public synchronized long rankOf(int steps, Duration duration) {
+        steps = Math.max(steps, 0);
+        long millis = duration.compareTo(MAXIMUM_DURATION) >= 0 ? Long.MAX_VALUE : duration.toMillis();
+        long better = 0;
+        Node node = root;
+        while (node != null) {
+            Entry entry = node.entry;
+            if (entry.steps() < steps || entry.steps() == steps && entry.durationMillis() < millis) {
+                better += count(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return better + 1;
+    }
+
+    public long rankOf(Scores score) {
+        return rankOf(score.getSteps(), Duration.ofMillis(durationMillis(score)));
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        node.count++;
+        if (ORDER.compare(added.entry, node.entry) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        left.count = node.count;
+        node.count = count(node.left) + count(node.right) + 1;
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        right.count = node.count;
+        node.count = count(node.left) + count(node.right) + 1;
+        return right;
+    }
+
+    private static long count(Node node) {
+        return node == null ? 0 : node.count;
+    }
+
+    private static long durationMillis(Scores score) {
+        if (score.getBegin() == null || score.getEnd() == null) {
+            return Long.MAX_VALUE;
+        }
+        Duration duration = Duration.between(score.getBegin(), score.getEnd());
+        return duration.compareTo(MAXIMUM_DURATION) >= 0 ? Long.MAX_VALUE : duration.toMillis();
+    }
+}
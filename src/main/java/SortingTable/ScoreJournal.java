@@ -0,0 +1,333 @@
+package SortingTable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import metrics.ScoreEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The {@code ScoreJournal} class stores the high scores as a snapshot plus an append-only journal.
+ * The snapshot is the plain JSON array of {@code highscores.json}; every finished game appends one JSON
+ * line to the journal next to it, so saving a score costs the same no matter how many are stored.
+ * Once the journal holds {@code compactThreshold} records it is folded into a new snapshot, written to a
+ * temporary file and renamed over the old one.
+ *
+ * <p>Each journal line carries the score's sequence number, its index in the full list. A compaction
+ * syncs the new snapshot to its temporary file, empties and syncs the journal, and only then renames the
+ * snapshot into place. The journal is therefore never replayed against a snapshot that already holds its
+ * records, even after {@link #removeIf} has shortened the list and restarted the sequence numbers. A crash
+ * before the rename leaves either a full journal, in which case the temporary file is discarded, or an empty
+ * one, in which case the complete temporary snapshot is the newest state and load finishes the rename.
+ * A line cut short by a crash is dropped and the journal is truncated back to the last complete record;
+ * earlier records are never rewritten. A write that fails part way, on a full disk for instance, is cut
+ * back off the journal before the error is passed on, so later records never follow torn bytes; if even
+ * that fails the journal is reopened and cut back before the next append. Lines whose sequence number is not
+ * the next one are ignored.
+ *
+ * <p>A complete line that cannot be read, after a schema change or a damaged byte for instance, is moved to
+ * a {@code .corrupt} file next to the snapshot and the lines after it are still replayed. The journal is
+ * then compacted, so later appends are numbered after the scores that were kept.
+ */
+public class ScoreJournal implements Closeable {
+    /** Journal records accumulated before they are compacted into the snapshot. */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 1000;
+
+    private static final Logger logger = LogManager.getLogger(ScoreJournal.class);
+    private static final byte NEWLINE = '\n';
+    private static final Histogram LOAD_NANOS = MetricsRegistry.global().histogram("scores.load.nanos");
+    private static final Histogram LOAD_BYTES = MetricsRegistry.global().histogram("scores.load.bytes");
+    private static final Histogram APPEND_NANOS = MetricsRegistry.global().histogram("scores.append.nanos");
+    private static final Histogram APPEND_BYTES = MetricsRegistry.global().histogram("scores.append.bytes");
+    private static final Histogram COMPACT_NANOS = MetricsRegistry.global().histogram("scores.compact.nanos");
+    private static final Histogram COMPACT_BYTES = MetricsRegistry.global().histogram("scores.compact.bytes");
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Path tempFile;
+    private final Path corruptFile;
+    private final ObjectMapper objectMapper;
+    private final int compactThreshold;
+    private final List<Scores> scores = new ArrayList<>();
+    private FileChannel journal;
+    private int journalRecords;
+    private long journalLength = -1;
+
+    /**
+     * One journal line: the score and its index in the full list.
+     */
+    record Entry(long seq, Scores score) {
+    }
+
+    public ScoreJournal(Path snapshotFile, ObjectMapper objectMapper) {
+        this(snapshotFile, objectMapper, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public ScoreJournal(Path snapshotFile, ObjectMapper objectMapper, int compactThreshold) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".journal");
+        this.tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        this.corruptFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".corrupt");
+        this.objectMapper = objectMapper;
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * Reads the snapshot and the journal tail and returns all scores in the order they were added.
+     * The returned list is a read-only view that reflects later appends.
+     */
+    public List<Scores> load() throws IOException {
+        ScoreEvent event = new ScoreEvent();
+        event.begin();
+        long begin = System.nanoTime();
+        long bytes = 0;
+        scores.clear();
+        recoverCompaction();
+        if (Files.exists(snapshotFile)) {
+            scores.addAll(objectMapper.readValue(snapshotFile.toFile(), new TypeReference<List<Scores>>() {}));
+            bytes += Files.size(snapshotFile);
+        }
+        journalRecords = 0;
+        journalLength = 0;
+        if (Files.exists(journalFile)) {
+            bytes += replayJournal();
+        }
+        record(event, "load", LOAD_NANOS, LOAD_BYTES, begin, scores.size(), bytes);
+        return Collections.unmodifiableList(scores);
+    }
+
+    /**
+     * Appends a score to the journal, compacting it into the snapshot when it has grown long enough.
+     */
+    public void append(Scores score) throws IOException {
+        appendAll(List.of(score));
+    }
+
+    /**
+     * Appends several scores with a single write and a single sync to disk.
+     */
+    public void appendAll(List<Scores> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ScoreEvent event = new ScoreEvent();
+        event.begin();
+        long begin = System.nanoTime();
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        long seq = scores.size();
+        for (Scores score : batch) {
+            lines.write(objectMapper.writeValueAsBytes(new Entry(seq++, score)));
+            lines.write(NEWLINE);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        FileChannel channel = journal();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            discardFailedWrite(channel);
+            throw e;
+        }
+        journalLength += buffer.capacity();
+        scores.addAll(batch);
+        journalRecords += batch.size();
+        record(event, "append", APPEND_NANOS, APPEND_BYTES, begin, batch.size(), buffer.capacity());
+        if (journalRecords >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes all scores into a fresh snapshot and empties the journal.
+     */
+    public void compact() throws IOException {
+        ScoreEvent event = new ScoreEvent();
+        event.begin();
+        long begin = System.nanoTime();
+        ByteBuffer snapshot = ByteBuffer.wrap(objectMapper.writeValueAsBytes(scores));
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            channel.force(true);
+        }
+        FileChannel channel = journal();
+        channel.truncate(0);
+        channel.force(true);
+        journalRecords = 0;
+        journalLength = 0;
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        record(event, "compact", COMPACT_NANOS, COMPACT_BYTES, begin, scores.size(), snapshot.capacity());
+        logger.info("Compacted {} high scores into {}", scores.size(), snapshotFile);
+    }
+
+    /**
+     * Removes the scores matching {@code filter} and compacts, so the snapshot no longer holds them and the
+     * journal's sequence numbers start over from the shorter list. The journal is emptied before the new
+     * snapshot replaces the old one, so its records are never counted twice.
+     *
+     * @return the number of scores removed
+     */
+    public int removeIf(Predicate<Scores> filter) throws IOException {
+        int before = scores.size();
+        if (!scores.removeIf(filter)) {
+            return 0;
+        }
+        compact();
+        return before - scores.size();
+    }
+
+    public List<Scores> getScores() {
+        return Collections.unmodifiableList(scores);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    private FileChannel journal() throws IOException {
+        if (journal == null) {
+            FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            try {
+                if (journalLength < 0) {
+                    journalLength = channel.size();
+                } else if (channel.size() > journalLength) {
+                    logger.warn("Truncating {} bytes of a failed high score journal write",
+                            channel.size() - journalLength);
+                    channel.truncate(journalLength);
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            journal = channel;
+        }
+        return journal;
+    }
+
+    // Cuts a failed write back off the journal, or closes it so that journal() cuts it back on reopening
+    private void discardFailedWrite(FileChannel channel) {
+        try {
+            channel.truncate(journalLength);
+            channel.force(false);
+        } catch (IOException e) {
+            logger.warn("Could not truncate the high score journal after a failed write", e);
+            try {
+                channel.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            journal = null;
+        }
+    }
+
+    // Finishes or discards a compaction that crashed before renaming its snapshot into place
+    private void recoverCompaction() throws IOException {
+        if (!Files.exists(tempFile)) {
+            return;
+        }
+        if (!Files.exists(journalFile) || Files.size(journalFile) == 0) {
+            try {
+                objectMapper.readValue(tempFile.toFile(), new TypeReference<List<Scores>>() {});
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                logger.warn("Finished an interrupted compaction of {}", snapshotFile);
+                return;
+            } catch (JsonProcessingException e) {
+                logger.warn("Discarding an incomplete snapshot {}", tempFile, e);
+            }
+        }
+        Files.delete(tempFile);
+    }
+
+    // Returns the number of bytes read
+    private long replayJournal() throws IOException {
+        byte[] content = Files.readAllBytes(journalFile);
+        ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+        int corruptRecords = 0;
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != NEWLINE) {
+                continue;
+            }
+            try {
+                Entry entry = objectMapper.readValue(content, lineStart, i - lineStart, Entry.class);
+                // each corrupt record before this one still took its sequence number
+                long expected = scores.size() + corruptRecords;
+                if (entry.seq() == expected) {
+                    scores.add(entry.score());
+                } else {
+                    logger.warn("Ignoring high score journal record {} out of sequence, expected {}", entry.seq(),
+                            expected);
+                }
+            } catch (IOException e) {
+                logger.warn("Moving corrupt high score journal record at byte {} to {}", lineStart, corruptFile, e);
+                corrupt.write(content, lineStart, i + 1 - lineStart);
+                corruptRecords++;
+            }
+            journalRecords++;
+            lineStart = i + 1;
+        }
+        if (lineStart < content.length) {
+            logger.warn("Truncating {} trailing bytes of an incomplete high score journal record",
+                    content.length - lineStart);
+            try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                channel.truncate(lineStart);
+            }
+        }
+        journalLength = lineStart;
+        if (corruptRecords > 0) {
+            // Keep the unreadable lines, then fold the journal into the snapshot so later appends are numbered
+            // after the records kept
+            ByteBuffer buffer = ByteBuffer.wrap(corrupt.toByteArray());
+            try (FileChannel channel = FileChannel.open(corruptFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            compact();
+        }
+        return content.length;
+    }
+
+    private static void record(ScoreEvent event, String operation, Histogram nanos, Histogram bytes, long begin,
+                               int count, long size) {
+        nanos.record(System.nanoTime() - begin);
+        bytes.record(size);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.scores = count;
+            event.bytes = size;
+            event.commit();
+        }
+    }
+}
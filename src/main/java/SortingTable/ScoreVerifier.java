@@ -0,0 +1,185 @@
+package SortingTable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import solver.PackedState;
+import solver.Replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code ScoreVerifier} class checks high scores before they are trusted, since
+ * {@code highscores.json} is a plain file anyone can edit. A score is accepted only if
+ * <ul>
+ *     <li>it is a finished game with at least {@link #START_OPTIMUM} steps, the fewest that solve the
+ *     start position;</li>
+ *     <li>its begin and end times are present, at least the minimum time per move apart and no more than
+ *     {@link #MAXIMUM_GAME_TIME} apart;</li>
+ *     <li>its replay, when it has one, starts from the start position, is legal move by move and solves
+ *     the board in exactly the claimed number of steps.</li>
+ * </ul>
+ * Each check is a few field reads plus, for replays, one byte per move on the packed board, so
+ * {@link #verifyAll} spreads the list over the common fork-join pool and needs no locking: each score is
+ * checked on its own and its verdict written to its own array slot.
+ */
+public class ScoreVerifier {
+    /** Fewest moves that solve the start position, as found by the solvers and the full distance table. */
+    public static final int START_OPTIMUM = 75;
+    /** A move takes two clicks; no player keeps up more than about six per second. */
+    public static final Duration DEFAULT_MINIMUM_MOVE_TIME = Duration.ofMillis(150);
+    /** Longest game accepted; anything longer points at edited times rather than a slow player. */
+    public static final Duration MAXIMUM_GAME_TIME = Duration.ofDays(7);
+
+    private static final Logger logger = LogManager.getLogger(ScoreVerifier.class);
+    private static final Counter QUARANTINED = MetricsRegistry.global().counter("scores.quarantined");
+
+    private final int optimum;
+    private final Duration minimumMoveTime;
+
+    /**
+     * Why a score was accepted or rejected.
+     */
+    public enum Verdict {
+        VALID,
+        NOT_FINISHED,
+        BELOW_OPTIMUM,
+        MISSING_TIMES,
+        IMPLAUSIBLE_TIMES,
+        TOO_FAST,
+        MALFORMED_REPLAY,
+        WRONG_START,
+        ILLEGAL_REPLAY,
+        REPLAY_MISMATCH
+    }
+
+    /**
+     * A rejected score and the reason, as written to the quarantine file.
+     */
+    public record Rejection(Verdict verdict, Scores score) {
+    }
+
+    /**
+     * The outcome of verifying a list of scores. Accepted scores keep their order.
+     */
+    public record Report(List<Scores> accepted, List<Rejection> rejected, Duration elapsed) {
+        @Override
+        public String toString() {
+            return String.format("%d scores verified in %d ms: %d accepted, %d rejected",
+                    accepted.size() + rejected.size(), elapsed.toMillis(), accepted.size(), rejected.size());
+        }
+    }
+
+    public ScoreVerifier() {
+        this(START_OPTIMUM, DEFAULT_MINIMUM_MOVE_TIME);
+    }
+
+    public ScoreVerifier(int optimum, Duration minimumMoveTime) {
+        this.optimum = optimum;
+        this.minimumMoveTime = minimumMoveTime;
+    }
+
+    public Verdict verify(Scores score) {
+        if (!score.isDone()) {
+            return Verdict.NOT_FINISHED;
+        }
+        int steps = score.getSteps();
+        if (steps < optimum) {
+            return Verdict.BELOW_OPTIMUM;
+        }
+        if (score.getBegin() == null || score.getEnd() == null || score.getEnd().isBefore(score.getBegin())) {
+            return Verdict.MISSING_TIMES;
+        }
+        Duration played = Duration.between(score.getBegin(), score.getEnd());
+        if (played.compareTo(MAXIMUM_GAME_TIME) > 0) {
+            return Verdict.IMPLAUSIBLE_TIMES;
+        }
+        if (played.compareTo(minimumMoveTime.multipliedBy(steps)) < 0) {
+            return Verdict.TOO_FAST;
+        }
+        byte[] bytes = score.getReplay();
+        if (bytes == null) {
+            return Verdict.VALID;
+        }
+        Replay replay;
+        try {
+            replay = Replay.fromBytes(bytes);
+        } catch (IllegalArgumentException e) {
+            return Verdict.MALFORMED_REPLAY;
+        }
+        if (replay.getStart() != PackedState.START) {
+            return Verdict.WRONG_START;
+        }
+        Replay.Verification result = replay.verify();
+        if (result.firstIllegal() >= 0) {
+            return Verdict.ILLEGAL_REPLAY;
+        }
+        return result.confirms(steps) ? Verdict.VALID : Verdict.REPLAY_MISMATCH;
+    }
+
+    /**
+     * Verifies every score in parallel.
+     */
+    public Report verifyAll(List<Scores> scores) {
+        long begin = System.nanoTime();
+        Verdict[] verdicts = new Verdict[scores.size()];
+        IntStream.range(0, verdicts.length).parallel().forEach(i -> verdicts[i] = verify(scores.get(i)));
+        List<Scores> accepted = new ArrayList<>(verdicts.length);
+        List<Rejection> rejected = new ArrayList<>();
+        for (int i = 0; i < verdicts.length; i++) {
+            if (verdicts[i] == Verdict.VALID) {
+                accepted.add(scores.get(i));
+            } else {
+                rejected.add(new Rejection(verdicts[i], scores.get(i)));
+            }
+        }
+        return new Report(accepted, rejected, Duration.ofNanos(System.nanoTime() - begin));
+    }
+
+    /**
+     * Verifies the scores of {@code journal}, appends the rejected ones to {@code quarantineFile} as one
+     * JSON line each and removes them from the journal. Nothing is removed unless the quarantine file was
+     * written.
+     */
+    public Report quarantine(ScoreJournal journal, Path quarantineFile, ObjectMapper objectMapper)
+            throws IOException {
+        Report report = verifyAll(journal.getScores());
+        if (report.rejected().isEmpty()) {
+            return report;
+        }
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        Set<Scores> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Rejection rejection : report.rejected()) {
+            lines.write(objectMapper.writeValueAsBytes(rejection));
+            lines.write('\n');
+            rejected.add(rejection.score());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        try (FileChannel channel = FileChannel.open(quarantineFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        journal.removeIf(rejected::contains);
+        QUARANTINED.add(report.rejected().size());
+        logger.warn("Quarantined {} of {} high scores in {}", report.rejected().size(),
+                journal.getScores().size() + report.rejected().size(), quarantineFile);
+        return report;
+    }
+}
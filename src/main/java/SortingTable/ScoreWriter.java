@@ -0,0 +1,99 @@
+package SortingTable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code ScoreWriter} class moves high-score persistence off the JavaFX Application Thread.
+ * {@link #submit(Scores)} only enqueues the score; a dedicated thread drains everything that is pending
+ * and hands it to the {@link ScoreJournal} as one batch, so a burst of scores costs a single write and a
+ * single sync to disk. {@link #close()} writes whatever is still queued before returning.
+ */
+public class ScoreWriter implements Closeable {
+    private static final Logger logger = LogManager.getLogger(ScoreWriter.class);
+    private static final Scores END_OF_QUEUE = new Scores("", LocalDateTime.MIN, LocalDateTime.MIN, 0, false);
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final ScoreJournal journal;
+    private final BlockingQueue<Scores> pending = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    public ScoreWriter(ScoreJournal journal) {
+        this.journal = journal;
+        this.thread = new Thread(this::run, "score-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a score for writing and returns immediately.
+     *
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public void submit(Scores score) {
+        if (closed) {
+            throw new IllegalStateException("Score writer is closed");
+        }
+        pending.add(score);
+    }
+
+    private void run() {
+        List<Scores> batch = new ArrayList<>();
+        boolean done = false;
+        while (!done) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                done = true;
+            }
+            pending.drainTo(batch);
+            done |= batch.remove(END_OF_QUEUE);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Scores> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            journal.appendAll(batch);
+            logger.info("Saved {} high score(s)", batch.size());
+        } catch (IOException e) {
+            logger.error("Failed to save high scores", e);
+        }
+    }
+
+    /**
+     * Writes all queued scores, stops the writer thread and closes the journal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.add(END_OF_QUEUE);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warn("Score writer did not finish within {} s", CLOSE_TIMEOUT_SECONDS);
+        } else {
+            journal.close();
+        }
+    }
+}
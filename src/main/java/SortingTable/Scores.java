@@ -9,6 +9,7 @@ public class Scores implements Serializable {
     private int steps;
     private boolean done;
     private String dText;
+    private byte[] replay;
 
     public Scores() {
     }
@@ -49,6 +50,18 @@ public class Scores implements Serializable {
         this.dText = dText;
     }
 
+    /**
+     * Returns the game's moves in the format of {@link solver.Replay#toBytes()}, or {@code null} for
+     * scores recorded before replays were kept.
+     */
+    public byte[] getReplay() {
+        return replay;
+    }
+
+    public void setReplay(byte[] replay) {
+        this.replay = replay;
+    }
+
     @Override
     public String toString() {
         return "Scores{" +
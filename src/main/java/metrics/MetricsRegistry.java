@@ -0,0 +1,54 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code MetricsRegistry} class holds the application's named counters and histograms so they can be
+ * reported together, for example in the log when the game closes. Instruments are created on first use
+ * and should be kept in a static field by the code that updates them, so the hot path never does a lookup.
+ *
+ * <p>Durations are recorded in nanoseconds and sizes in bytes; the unit is the last part of the name,
+ * as in {@code game.move.nanos}.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    /**
+     * Returns one line per instrument that has recorded anything, sorted by name.
+     */
+    public String report() {
+        Map<String, Object> sorted = new TreeMap<>();
+        counters.forEach((name, counter) -> {
+            if (counter.get() != 0) {
+                sorted.put(name, counter);
+            }
+        });
+        histograms.forEach((name, histogram) -> {
+            if (histogram.getCount() != 0) {
+                sorted.put(name, histogram);
+            }
+        });
+        StringBuilder report = new StringBuilder();
+        for (Object instrument : sorted.values()) {
+            report.append(instrument).append('\n');
+        }
+        return report.toString();
+    }
+}
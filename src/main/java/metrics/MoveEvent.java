@@ -0,0 +1,33 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A tile move handled by the board, from the click to the updated board.
+ */
+@Name("sortingpuzzle.Move")
+@Label("Move")
+@Category({"Sorting Puzzle", "Game"})
+@Description("A tile move handled by the board, from the click to the updated board")
+public class MoveEvent extends jdk.jfr.Event {
+    @Label("From Row")
+    public int fromRow;
+
+    @Label("From Column")
+    public int fromCol;
+
+    @Label("To Row")
+    public int toRow;
+
+    @Label("To Column")
+    public int toCol;
+
+    @Label("Moves")
+    public int moves;
+
+    @Label("Solved")
+    public boolean solved;
+}
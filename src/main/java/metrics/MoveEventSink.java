@@ -0,0 +1,200 @@
+package metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code MoveEventSink} class records moves as fixed-size binary records instead of formatted log
+ * lines. A move is written into a preallocated ring buffer of {@code long}s and a background thread drains
+ * the ring to the file in large writes, so recording a move never allocates, formats a string or touches
+ * the disk. When the writer falls behind and the ring is full, new moves are dropped and counted rather
+ * than making the caller wait.
+ *
+ * <p>File layout: a 16-byte big-endian header (magic, version, record size, reserved) followed by
+ * {@value #RECORD_SIZE}-byte records: wall-clock time in epoch milliseconds, the game's move count after
+ * the move, then the from row, from column, to row and to column as single bytes. {@link #read} decodes a
+ * file.
+ */
+public class MoveEventSink implements Closeable {
+    /** Size of one record in the file. */
+    public static final int RECORD_SIZE = 16;
+
+    static final int MAGIC = 0x4D455631; // "MEV1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final Logger logger = LogManager.getLogger(MoveEventSink.class);
+    private static final Counter DROPPED = MetricsRegistry.global().counter("moves.sink.dropped");
+    private static final long IDLE_PARK_NANOS = 50_000_000L;
+
+    private final FileChannel channel;
+    private final long[] ring;
+    private final int mask;
+    private final ByteBuffer buffer;
+    private final Thread writer;
+    private volatile long published;
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    /**
+     * Receives the records of a move file one at a time.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long epochMillis, int moves, int fromRow, int fromCol, int toRow, int toCol);
+    }
+
+    /**
+     * Opens {@code file} for appending, writing the header if it is new, and starts the writer thread.
+     *
+     * @param capacity number of moves the ring holds, rounded up to a power of two
+     */
+    public MoveEventSink(Path file, int capacity) throws IOException {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.ring = new long[size * 2];
+        this.mask = size - 1;
+        this.buffer = ByteBuffer.allocateDirect(Math.min(size, 4096) * RECORD_SIZE);
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (isNew) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+        this.writer = new Thread(this::drainLoop, "move-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records a move. Never blocks on I/O; returns {@code false} if the move was dropped because the ring
+     * was full or the sink is closed.
+     */
+    public synchronized boolean record(int fromRow, int fromCol, int toRow, int toCol, int moves) {
+        long sequence = published;
+        if (!running || sequence - consumed > mask) {
+            DROPPED.increment();
+            return false;
+        }
+        int slot = (int) (sequence & mask) * 2;
+        ring[slot] = System.currentTimeMillis();
+        int cells = (fromRow & 0xFF) << 24 | (fromCol & 0xFF) << 16 | (toRow & 0xFF) << 8 | (toCol & 0xFF);
+        ring[slot + 1] = ((long) moves << 32) | (cells & 0xFFFF_FFFFL);
+        published = sequence + 1;
+        return true;
+    }
+
+    /**
+     * Returns the number of moves recorded and not yet written to the file.
+     */
+    public long pending() {
+        return published - consumed;
+    }
+
+    /**
+     * Writes the remaining moves and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        channel.close();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                if (drain() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to write move events, stopping the sink", e);
+                running = false;
+            }
+        }
+    }
+
+    // Writes everything published so far; returns the number of records written
+    private int drain() throws IOException {
+        long from = consumed;
+        long to = published;
+        for (long sequence = from; sequence < to; sequence++) {
+            int slot = (int) (sequence & mask) * 2;
+            long packed = ring[slot + 1];
+            buffer.putLong(ring[slot]).putInt((int) (packed >>> 32)).putInt((int) packed);
+            if (!buffer.hasRemaining()) {
+                flush();
+                consumed = sequence + 1;
+            }
+        }
+        flush();
+        consumed = to;
+        return (int) (to - from);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads a move file written by this class.
+     *
+     * @return the number of records read
+     * @throws IOException if the file cannot be read or is not a move file
+     */
+    public static long read(Path file, RecordConsumer consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            in.read(header);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getInt() != RECORD_SIZE) {
+                throw new IOException("Not a move event file: " + file);
+            }
+            ByteBuffer records = ByteBuffer.allocate(4096 * RECORD_SIZE);
+            long count = 0;
+            int read;
+            do {
+                read = in.read(records);
+                records.flip();
+                while (records.remaining() >= RECORD_SIZE) {
+                    long epochMillis = records.getLong();
+                    int moves = records.getInt();
+                    int cells = records.getInt();
+                    consumer.accept(epochMillis, moves, cells >>> 24, (cells >>> 16) & 0xFF,
+                            (cells >>> 8) & 0xFF, cells & 0xFF);
+                    count++;
+                }
+                records.compact();
+            } while (read >= 0); // a trailing partial record is ignored
+            return count;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One update of the board's buttons.
+ */
+@Name("sortingpuzzle.Render")
+@Label("Board Render")
+@Category({"Sorting Puzzle", "UI"})
+@Description("One update of the board's buttons")
+public class RenderEvent extends jdk.jfr.Event {
+    @Label("Cells Updated")
+    public int cellsUpdated;
+
+    @Label("Full Render")
+    @Description("The buttons were created rather than updated")
+    public boolean fullRender;
+}
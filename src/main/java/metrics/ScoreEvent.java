@@ -0,0 +1,27 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading, appending or compacting the high scores.
+ */
+@Name("sortingpuzzle.Scores")
+@Label("High Scores I/O")
+@Category({"Sorting Puzzle", "Persistence"})
+@Description("Loading, appending or compacting the high scores")
+public class ScoreEvent extends jdk.jfr.Event {
+    /** One of {@code load}, {@code append} or {@code compact}. */
+    @Label("Operation")
+    public String operation;
+
+    @Label("Scores")
+    public int scores;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
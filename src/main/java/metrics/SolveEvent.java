@@ -0,0 +1,58 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One search for a solution, for a hint or in a batch.
+ */
+@Name("sortingpuzzle.Solve")
+@Label("Solve")
+@Category({"Sorting Puzzle", "Solver"})
+@Description("One search for a solution, for a hint or in a batch")
+public class SolveEvent extends jdk.jfr.Event {
+    private static final Histogram SOLVE_NANOS = MetricsRegistry.global().histogram("solver.solve.nanos");
+    private static final Histogram NODES_PER_SECOND = MetricsRegistry.global().histogram("solver.nodes.per.second");
+    private static final Counter NODES = MetricsRegistry.global().counter("solver.nodes");
+
+    @Label("Solver")
+    public String solver;
+
+    @Label("Nodes Expanded")
+    public long nodes;
+
+    @Label("Solution Length")
+    @Description("Number of moves, -1 when no solution was found")
+    public int length;
+
+    @Label("Search Time")
+    @Timespan
+    public long elapsed;
+
+    @Label("Nodes per Second")
+    public long nodesPerSecond;
+
+    /**
+     * Records a finished search in the metrics registry and, if recording, as an event.
+     */
+    public static void record(String solver, long nodes, long elapsedNanos, int length) {
+        long nodesPerSecond = elapsedNanos > 0 ? (long) (nodes * 1e9 / elapsedNanos) : 0;
+        SOLVE_NANOS.record(elapsedNanos);
+        NODES.add(nodes);
+        if (nodes > 0) {
+            NODES_PER_SECOND.record(nodesPerSecond);
+        }
+        SolveEvent event = new SolveEvent();
+        if (event.shouldCommit()) {
+            event.solver = solver;
+            event.nodes = nodes;
+            event.length = length;
+            event.elapsed = elapsedNanos;
+            event.nodesPerSecond = nodesPerSecond;
+            event.commit();
+        }
+    }
+}
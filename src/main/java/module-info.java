@@ -16,4 +16,6 @@ module org.example.sortingpuzzle {
     exports solver;
     opens solver to com.fasterxml.jackson.databind, javafx.fxml;
     requires org.apache.logging.log4j;
+    requires jdk.jfr;
+    exports metrics;
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.function.LongToIntFunction;
+
+/**
+ * The {@code AStarSolver} class finds a shortest solution with A* search. The heuristic adds up, for every
+ * tile, the number of steps between its cell and its goal cell. A move shifts one tile by one step, so the
+ * estimate never exceeds the true distance and the first solution taken from the open list is optimal.
+ * Any other admissible estimate, such as a {@link PatternDatabase}, can be given instead.
+ * The search gives up and reports no solution when the calling thread is interrupted.
+ */
+public class AStarSolver implements Solver {
+    private static final int INTERRUPT_CHECK_MASK = 0xFFF;
+
+    private final LongToIntFunction estimator;
+
+    public AStarSolver() {
+        this(AStarSolver::heuristic);
+    }
+
+    /**
+     * @param estimator lower bound on the number of moves needed to solve a packed position
+     */
+    public AStarSolver(LongToIntFunction estimator) {
+        this.estimator = estimator;
+    }
+
+    @Override
+    public Solution solve(long start) {
+        long begin = System.nanoTime();
+        SearchNodes nodes = new SearchNodes();
+        LongIntHashMap best = new LongIntHashMap();
+        OpenList open = new OpenList();
+
+        int root = nodes.add(start, -1, 0, 0);
+        best.put(start, root);
+        open.push(estimator.applyAsInt(start), root);
+
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        long expanded = 0;
+        while (!open.isEmpty()) {
+            int node = open.pop();
+            long state = nodes.state(node);
+            if (best.get(state) != node) {
+                continue;
+            }
+            if (PackedState.isSolved(state)) {
+                return new Solution(nodes.path(node), expanded, System.nanoTime() - begin);
+            }
+            if ((++expanded & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            int depth = nodes.depth(node) + 1;
+            int count = MoveGenerator.generate(state, buffer);
+            for (int i = 0; i < count; i++) {
+                int move = buffer[i];
+                long next = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+                int known = best.get(next);
+                if (known != LongIntHashMap.NO_VALUE && nodes.depth(known) <= depth) {
+                    continue;
+                }
+                int child = nodes.add(next, node, move, depth);
+                best.put(next, child);
+                open.push(depth + estimator.applyAsInt(next), child);
+            }
+        }
+        return new Solution(null, expanded, System.nanoTime() - begin);
+    }
+
+    /**
+     * Returns a lower bound on the number of moves needed to solve {@code state}.
+     */
+    public static int heuristic(long state) {
+        int estimate = 0;
+        for (int cell = 0; cell < PackedState.CELLS; cell++) {
+            int tile = PackedState.tileAt(state, cell);
+            if (tile != 0) {
+                estimate += PackedState.distance(cell, PackedState.goalCell(tile));
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Bucket queue of node indices ordered by f = g + h. Each bucket is a stack, so among nodes with equal
+     * f the most recently generated, and therefore deepest, node is expanded first.
+     */
+    private static final class OpenList {
+        private int[][] buckets = new int[64][];
+        private int[] sizes = new int[64];
+        private int lowest = Integer.MAX_VALUE;
+        private int count;
+
+        void push(int priority, int node) {
+            if (priority >= buckets.length) {
+                int capacity = Math.max(priority + 1, buckets.length * 2);
+                buckets = Arrays.copyOf(buckets, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            int[] bucket = buckets[priority];
+            if (bucket == null) {
+                bucket = new int[256];
+                buckets[priority] = bucket;
+            } else if (sizes[priority] == bucket.length) {
+                bucket = Arrays.copyOf(bucket, bucket.length * 2);
+                buckets[priority] = bucket;
+            }
+            bucket[sizes[priority]++] = node;
+            lowest = Math.min(lowest, priority);
+            count++;
+        }
+
+        int pop() {
+            while (sizes[lowest] == 0) {
+                lowest++;
+            }
+            count--;
+            return buckets[lowest][--sizes[lowest]];
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+    }
+}
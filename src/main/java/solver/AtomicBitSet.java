@@ -0,0 +1,45 @@
+package solver;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The {@code AtomicBitSet} class is a fixed-size bitmap whose bits can be set concurrently without locks.
+ * It is used to mark visited positions by {@link StateRank rank} when several threads expand a search
+ * frontier at once.
+ */
+public final class AtomicBitSet {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final long size;
+
+    public AtomicBitSet(long size) {
+        this.size = size;
+        this.words = new long[(int) ((size + 63) >>> 6)];
+    }
+
+    public boolean get(long index) {
+        long word = (long) WORDS.getAcquire(words, (int) (index >>> 6));
+        return (word & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets the bit at {@code index}.
+     *
+     * @return {@code true} if this call changed the bit, {@code false} if it was already set
+     */
+    public boolean set(long index) {
+        int wordIndex = (int) (index >>> 6);
+        long bit = 1L << index;
+        if (((long) WORDS.getAcquire(words, wordIndex) & bit) != 0) {
+            return false;
+        }
+        long previous = (long) WORDS.getAndBitwiseOr(words, wordIndex, bit);
+        return (previous & bit) == 0;
+    }
+
+    public long size() {
+        return size;
+    }
+}
@@ -0,0 +1,185 @@
+package solver;
+
+import metrics.MetricsRegistry;
+import metrics.SolveEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code BatchSolver} class is a headless entry point that solves a stream of positions. Positions are
+ * read one per line in the {@link PackedState#toBoardString(long)} format, for example
+ * {@code "XXX X X XX/ 234567891"}, and handed to a pool of worker threads through a bounded queue: when
+ * the workers fall behind the reader blocks, so memory stays fixed however long the input is. Each result
+ * is written as soon as it is ready, tab-separated:
+ * <pre>line number, position, optimal move count, nodes expanded, microseconds</pre>
+ * Line numbers count every line of the input, blank ones included, although blank lines are skipped.
+ * Lines that cannot be parsed or solved, whatever the solver throws, produce {@code ERROR} and the reason
+ * instead of the numbers, and the worker goes on with the next line. Should every worker stop anyway,
+ * the reader notices instead of blocking on the full queue and the run fails.
+ *
+ * <p>Usage: {@code BatchSolver [--threads N] [--queue N] [--table distances.bin | --patterns patterns.bin]
+ * [input|-]}. A* uses the pattern database given with {@code --patterns}, or the Manhattan
+ * heuristic.
+ */
+public class BatchSolver {
+    private static final Logger logger = LogManager.getLogger(BatchSolver.class);
+    private static final Task END_OF_INPUT = new Task(-1, null);
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final Solver solver;
+    private final String solverName;
+    private final int threads;
+    private final int queueCapacity;
+
+    private record Task(long lineNumber, String line) {
+    }
+
+    public BatchSolver(Solver solver, int threads, int queueCapacity) {
+        this.solver = solver;
+        this.solverName = solver.getClass().getSimpleName();
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Solves every line of {@code input} and writes one result line per input line to {@code output}.
+     *
+     * @return the number of positions read
+     * @throws IOException if the input cannot be read or every worker thread has stopped
+     */
+    public long run(Reader input, Writer output) throws IOException, InterruptedException {
+        BlockingQueue<Task> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicLong solved = new AtomicLong();
+        AtomicInteger running = new AtomicInteger(threads);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> work(queue, output, solved, running), "batch-solver-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+
+        long lineNumber = 0;
+        long positions = 0;
+        try (BufferedReader reader = new BufferedReader(input)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (!submit(queue, new Task(lineNumber, line), running)) {
+                    throw new IOException("Every solver thread has stopped, at line " + lineNumber);
+                }
+                positions++;
+            }
+        } finally {
+            for (int i = 0; i < threads; i++) {
+                if (!submit(queue, END_OF_INPUT, running)) {
+                    break;
+                }
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            output.flush();
+        }
+        logger.debug("Solved {} of {} positions", solved.get(), positions);
+        logger.debug("Metrics:\n{}", MetricsRegistry.global().report());
+        return positions;
+    }
+
+    // Returns false instead of waiting forever once no worker is left to take the task
+    private static boolean submit(BlockingQueue<Task> queue, Task task, AtomicInteger running)
+            throws InterruptedException {
+        while (!queue.offer(task, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (running.get() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void work(BlockingQueue<Task> queue, Writer output, AtomicLong solved, AtomicInteger running) {
+        StringBuilder result = new StringBuilder(64);
+        try {
+            while (true) {
+                Task task = queue.take();
+                if (task == END_OF_INPUT) {
+                    return;
+                }
+                result.setLength(0);
+                result.append(task.lineNumber()).append('\t').append(task.line()).append('\t');
+                try {
+                    Solution solution = solver.solve(PackedState.parse(task.line()));
+                    SolveEvent.record(solverName, solution.getNodesExpanded(), solution.getElapsed().toNanos(),
+                            solution.length());
+                    result.append(solution.length()).append('\t')
+                            .append(solution.getNodesExpanded()).append('\t')
+                            .append(solution.getElapsed().toNanos() / 1000);
+                    solved.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    result.append("ERROR\t").append(e.getMessage());
+                } catch (Throwable e) {
+                    // an OutOfMemoryError on one hard position must not take the whole batch down
+                    logger.error("Failed to solve line {}", task.lineNumber(), e);
+                    result.append("ERROR\t").append(e);
+                }
+                result.append('\n');
+                try {
+                    synchronized (output) {
+                        output.append(result);
+                    }
+                } catch (IOException e) {
+                    logger.error("Failed to write result for line {}", task.lineNumber(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = 1024;
+        Path table = null;
+        Path patterns = null;
+        String input = "-";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--queue" -> queueCapacity = Integer.parseInt(args[++i]);
+                case "--table" -> table = Path.of(args[++i]);
+                case "--patterns" -> patterns = Path.of(args[++i]);
+                default -> input = args[i];
+            }
+        }
+        Solver solver = table != null ? DistanceTable.open(table)
+                : patterns != null ? new AStarSolver(PatternDatabase.load(patterns))
+                : new AStarSolver();
+        Reader reader = input.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        new BatchSolver(solver, threads, queueCapacity).run(reader, writer);
+    }
+}
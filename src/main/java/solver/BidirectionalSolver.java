@@ -0,0 +1,101 @@
+package solver;
+
+/**
+ * The {@code BidirectionalSolver} class finds a shortest solution with two breadth-first searches, one
+ * forward from the position and one backward from the solved board, which is the same for every game.
+ * Moves are reversible, so the backward search uses ordinary moves. Each round expands one whole layer of
+ * whichever side has the smaller frontier, and the search stops at the end of the first layer in which a
+ * new position is already known to the other side; the shortest such meeting gives the solution. Each side
+ * only needs to reach about half the solution depth, so on deep positions far fewer positions are stored
+ * and expanded than by {@link BreadthFirstSolver}.
+ *
+ * <p>The search gives up and reports no solution when the calling thread is interrupted.
+ */
+public class BidirectionalSolver implements Solver {
+    private static final int INTERRUPT_CHECK_MASK = 0xFFF;
+
+    /**
+     * One direction of the search: its nodes in breadth-first order and the range holding the frontier.
+     */
+    private static final class Side {
+        private final SearchNodes nodes = new SearchNodes();
+        private final LongIntHashMap visited = new LongIntHashMap();
+        private int layerStart;
+        private int layerEnd;
+
+        Side(long root) {
+            nodes.add(root, -1, 0, 0);
+            visited.put(root, 0);
+            layerEnd = 1;
+        }
+
+        int frontier() {
+            return layerEnd - layerStart;
+        }
+
+        void nextLayer() {
+            layerStart = layerEnd;
+            layerEnd = nodes.size();
+        }
+    }
+
+    @Override
+    public Solution solve(long start) {
+        long begin = System.nanoTime();
+        if (PackedState.isSolved(start)) {
+            return new Solution(new int[0], 0, System.nanoTime() - begin);
+        }
+        Side forward = new Side(start);
+        Side backward = new Side(PackedState.SOLVED);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        long expanded = 0;
+        while (forward.frontier() > 0 && backward.frontier() > 0) {
+            Side side = forward.frontier() <= backward.frontier() ? forward : backward;
+            Side other = side == forward ? backward : forward;
+            int bestLength = Integer.MAX_VALUE;
+            int bestNode = -1;
+            int bestOther = -1;
+            for (int node = side.layerStart; node < side.layerEnd; node++) {
+                if ((++expanded & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                    return new Solution(null, expanded, System.nanoTime() - begin);
+                }
+                long state = side.nodes.state(node);
+                int depth = side.nodes.depth(node) + 1;
+                int count = MoveGenerator.generate(state, buffer);
+                for (int i = 0; i < count; i++) {
+                    int move = buffer[i];
+                    long next = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+                    if (!side.visited.putIfAbsent(next, side.nodes.size())) {
+                        continue;
+                    }
+                    int child = side.nodes.add(next, node, move, depth);
+                    int meeting = other.visited.get(next);
+                    if (meeting != LongIntHashMap.NO_VALUE && depth + other.nodes.depth(meeting) < bestLength) {
+                        bestLength = depth + other.nodes.depth(meeting);
+                        bestNode = child;
+                        bestOther = meeting;
+                    }
+                }
+            }
+            side.nextLayer();
+            if (bestNode >= 0) {
+                int[] moves = side == forward
+                        ? join(forward.nodes.path(bestNode), backward.nodes.path(bestOther))
+                        : join(forward.nodes.path(bestOther), backward.nodes.path(bestNode));
+                return new Solution(moves, expanded, System.nanoTime() - begin);
+            }
+        }
+        return new Solution(null, expanded, System.nanoTime() - begin);
+    }
+
+    // Appends the backward path, which leads from the solved board to the meeting position, run in reverse
+    private static int[] join(int[] forward, int[] backward) {
+        int[] moves = new int[forward.length + backward.length];
+        System.arraycopy(forward, 0, moves, 0, forward.length);
+        for (int i = 0; i < backward.length; i++) {
+            int move = backward[backward.length - 1 - i];
+            moves[forward.length + i] = PackedState.moveCode(PackedState.moveTo(move), PackedState.moveFrom(move));
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,303 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The {@code BoardLayout} class describes a board as data: a rectangular grid of at most 64 cells, the
+ * cells that are blocked, the goal arrangement and the arrangement a new game starts from. Boards are given
+ * as rows of characters: {@code 'X'} for a blocked cell, a blank for an empty cell and any other character
+ * for a tile.
+ *
+ * <p>A layout is compiled once when it is created. Cells are numbered {@code row * cols + col}, so any set
+ * of cells is a single {@code long}; every cell gets its neighbours as a flat array and as a bitmask, and
+ * every (cell, character) pair a random Zobrist key. {@link Game} uses these tables for move generation,
+ * goal checks and hashing instead of walking the grid.
+ */
+public final class BoardLayout {
+    /** Character of a blocked cell. */
+    public static final char BLOCKED = 'X';
+    /** Character of an empty cell. */
+    public static final char EMPTY = ' ';
+    /** Largest number of cells in a grid, so that a set of cells fits in a {@code long}. */
+    public static final int MAX_CELLS = 64;
+
+    private static final int MOVE_BITS = 6;
+    private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final long ZOBRIST_SEED = 0x5EED_2024L;
+    private static final int ZOBRIST_CHARS = 128;
+
+    /** The original 2x10 board with pockets at columns 3, 5 and 7. */
+    public static final BoardLayout CLASSIC = parse("XXX X X XX/123456789 ", "XXX X X XX/ 234567891");
+    /** A 3x12 board with two-deep pockets at columns 1, 4, 7 and 10 and eleven tiles. */
+    public static final BoardLayout WIDE = parse(
+            "X XX XX XX X/X XX XX XX X/123456789AB ",
+            "X XX XX XX X/X XX XX XX X/ 23456789AB1");
+    /** A 4x15 board with three-deep pockets at columns 1, 4, 7, 10 and 13 and fourteen tiles. */
+    public static final BoardLayout LARGE = parse(
+            "X XX XX XX XX X/X XX XX XX XX X/X XX XX XX XX X/123456789ABCDE ",
+            "X XX XX XX XX X/X XX XX XX XX X/X XX XX XX XX X/ 23456789ABCDE1");
+
+    private final int rows;
+    private final int cols;
+    private final long blocked;
+    private final long playable;
+    private final char[][] goal;
+    private final char[][] start;
+    private final int startEmpty;
+    private final int maxMoves;
+    private final int[][] neighbours;
+    private final long[] neighbourMasks;
+    private final long[][] zobrist;
+
+    /**
+     * Compiles a layout.
+     *
+     * @param blockedMask bit {@code row * cols + col} is set for every blocked cell
+     * @param goal the solved arrangement
+     * @param start the arrangement {@link Game#resetGame()} sets up
+     * @throws IllegalArgumentException if the grid is too large, the arrangements do not match the grid and
+     *                                  the mask, or they do not hold the same tiles exactly once each
+     */
+    public BoardLayout(int rows, int cols, long blockedMask, char[][] goal, char[][] start) {
+        if (rows <= 0 || cols <= 0 || rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Grid must have between 1 and " + MAX_CELLS + " cells: "
+                    + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        int cells = rows * cols;
+        long all = cells == MAX_CELLS ? -1L : (1L << cells) - 1;
+        this.blocked = blockedMask & all;
+        this.playable = ~blocked & all;
+        this.goal = copy(goal);
+        this.start = copy(start);
+        long goalTiles = checkArrangement(this.goal, "goal");
+        long startTiles = checkArrangement(this.start, "start");
+        if (!tileCounts(this.goal).equals(tileCounts(this.start))) {
+            throw new IllegalArgumentException("Goal and start hold different tiles");
+        }
+        int emptyCells = Long.bitCount(playable & ~goalTiles);
+        this.startEmpty = 63 - Long.numberOfLeadingZeros(playable & ~startTiles);
+        this.neighbours = new int[cells][];
+        this.neighbourMasks = new long[cells];
+        int[] degrees = new int[cells];
+        for (int index = 0; index < cells; index++) {
+            int[] found = new int[DIRECTIONS.length];
+            int count = 0;
+            for (int[] direction : DIRECTIONS) {
+                int row = rowOf(index) + direction[0];
+                int col = colOf(index) + direction[1];
+                if (isOnBoard(row, col)) {
+                    found[count++] = index(row, col);
+                    neighbourMasks[index] |= 1L << index(row, col);
+                }
+            }
+            neighbours[index] = Arrays.copyOf(found, count);
+            degrees[index] = (playable & (1L << index)) != 0 ? count : 0;
+        }
+        Arrays.sort(degrees);
+        int moves = 0;
+        for (int i = 0; i < emptyCells; i++) {
+            moves += degrees[cells - 1 - i];
+        }
+        this.maxMoves = moves;
+        this.zobrist = zobristKeys(cells);
+    }
+
+    /**
+     * Compiles a layout from boards written as rows joined by {@code '/'}, top row first, the way
+     * {@link PackedState#toBoardString(long)} formats them. Cells holding {@code 'X'} in the goal are blocked.
+     */
+    public static BoardLayout parse(String goal, String start) {
+        char[][] goalRows = rows(goal);
+        char[][] startRows = rows(start);
+        long blockedMask = 0;
+        for (int row = 0; row < goalRows.length; row++) {
+            for (int col = 0; col < goalRows[row].length; col++) {
+                if (goalRows[row][col] == BLOCKED) {
+                    blockedMask |= 1L << (row * goalRows[0].length + col);
+                }
+            }
+        }
+        return new BoardLayout(goalRows.length, goalRows[0].length, blockedMask, goalRows, startRows);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    public int rowOf(int index) {
+        return index / cols;
+    }
+
+    public int colOf(int index) {
+        return index % cols;
+    }
+
+    public boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    public boolean isBlocked(int row, int col) {
+        return isOnBoard(row, col) && (blocked & (1L << index(row, col))) != 0;
+    }
+
+    /**
+     * Returns the bitmask of cells that are not blocked.
+     */
+    public long playableMask() {
+        return playable;
+    }
+
+    /**
+     * Returns the cells orthogonally adjacent to {@code index}, blocked ones included. The returned array
+     * is shared and must not be modified.
+     */
+    public int[] neighbours(int index) {
+        return neighbours[index];
+    }
+
+    public long neighbourMask(int index) {
+        return neighbourMasks[index];
+    }
+
+    /**
+     * Returns the largest number of tile moves any position on this layout can have, the size of the
+     * buffer {@link Game#getLegalGridMoves(int[])} needs.
+     */
+    public int maxMoves() {
+        return maxMoves;
+    }
+
+    /**
+     * Encodes a move between two grid cells into a single code. This is not the cell code of
+     * {@link PackedState#moveCode(int, int)}, which numbers only the playable cells of the classic board.
+     */
+    public static int moveCode(int from, int to) {
+        return (from << MOVE_BITS) | to;
+    }
+
+    public static int moveFrom(int code) {
+        return code >>> MOVE_BITS;
+    }
+
+    public static int moveTo(int code) {
+        return code & ((1 << MOVE_BITS) - 1);
+    }
+
+    /**
+     * Returns {@code true} if {@code board} holds the goal arrangement.
+     */
+    public boolean isGoal(char[][] board) {
+        for (int row = 0; row < rows; row++) {
+            if (!Arrays.equals(board[row], goal[row])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public char[][] goalBoard() {
+        return copy(goal);
+    }
+
+    public char[][] startBoard() {
+        return copy(start);
+    }
+
+    /**
+     * Returns the cell {@link Game#getEmptyRow()} and {@link Game#getEmptyCol()} point at after a reset:
+     * the last empty cell of the start arrangement.
+     */
+    int startEmpty() {
+        return startEmpty;
+    }
+
+    /**
+     * Returns the Zobrist key of a character in a cell; blanks hash to zero.
+     */
+    long zobristKey(int index, char value) {
+        if (value < ZOBRIST_CHARS) {
+            return zobrist[index][value];
+        }
+        return LongIntHashMap.mix(((long) index << 16) | value);
+    }
+
+    // Checks the shape and returns the mask of cells holding tiles
+    private long checkArrangement(char[][] board, String name) {
+        if (board.length != rows) {
+            throw new IllegalArgumentException("Expected " + rows + " rows in the " + name + ", got " + board.length);
+        }
+        long tiles = 0;
+        for (int row = 0; row < rows; row++) {
+            if (board[row].length != cols) {
+                throw new IllegalArgumentException("Expected " + cols + " columns in row " + row + " of the "
+                        + name + ", got " + board[row].length);
+            }
+            for (int col = 0; col < cols; col++) {
+                char value = board[row][col];
+                boolean isBlocked = (blocked & (1L << index(row, col))) != 0;
+                if (isBlocked != (value == BLOCKED)) {
+                    throw new IllegalArgumentException("Cell " + row + "," + col + " of the " + name
+                            + (isBlocked ? " must be blocked" : " must not be blocked"));
+                }
+                if (value != BLOCKED && value != EMPTY) {
+                    tiles |= 1L << index(row, col);
+                }
+            }
+        }
+        return tiles;
+    }
+
+    private static String tileCounts(char[][] board) {
+        StringBuilder tiles = new StringBuilder();
+        for (char[] row : board) {
+            for (char value : row) {
+                if (value != BLOCKED && value != EMPTY) {
+                    tiles.append(value);
+                }
+            }
+        }
+        char[] sorted = tiles.toString().toCharArray();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Tile '" + sorted[i] + "' appears twice");
+            }
+        }
+        return new String(sorted);
+    }
+
+    private static char[][] rows(String board) {
+        String[] lines = board.split("/", -1);
+        char[][] rows = new char[lines.length][];
+        for (int row = 0; row < lines.length; row++) {
+            rows[row] = lines[row].toCharArray();
+        }
+        return rows;
+    }
+
+    private static char[][] copy(char[][] board) {
+        return Arrays.stream(board).map(char[]::clone).toArray(char[][]::new);
+    }
+
+    private static long[][] zobristKeys(int cells) {
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        long[][] keys = new long[cells][ZOBRIST_CHARS];
+        for (long[] cellKeys : keys) {
+            for (int value = 0; value < cellKeys.length; value++) {
+                cellKeys[value] = value == EMPTY ? 0 : random.nextLong();
+            }
+        }
+        return keys;
+    }
+}
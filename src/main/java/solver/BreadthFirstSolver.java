@@ -0,0 +1,41 @@
+package solver;
+
+/**
+ * The {@code BreadthFirstSolver} class finds a shortest solution by expanding positions in order of their
+ * distance from the start. It needs no heuristic but visits every position closer than the solution, so it
+ * is best suited to positions near the solved board.
+ */
+public class BreadthFirstSolver implements Solver {
+
+    @Override
+    public Solution solve(long start) {
+        long begin = System.nanoTime();
+        SearchNodes nodes = new SearchNodes();
+        LongIntHashMap visited = new LongIntHashMap();
+        nodes.add(start, -1, 0, 0);
+        visited.put(start, 0);
+        if (PackedState.isSolved(start)) {
+            return new Solution(new int[0], 0, System.nanoTime() - begin);
+        }
+
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        long expanded = 0;
+        for (int node = 0; node < nodes.size(); node++) {
+            long state = nodes.state(node);
+            int depth = nodes.depth(node) + 1;
+            expanded++;
+            int count = MoveGenerator.generate(state, buffer);
+            for (int i = 0; i < count; i++) {
+                int move = buffer[i];
+                long next = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+                if (visited.putIfAbsent(next, nodes.size())) {
+                    int child = nodes.add(next, node, move, depth);
+                    if (PackedState.isSolved(next)) {
+                        return new Solution(nodes.path(child), expanded, System.nanoTime() - begin);
+                    }
+                }
+            }
+        }
+        return new Solution(null, expanded, System.nanoTime() - begin);
+    }
+}
@@ -0,0 +1,96 @@
+package solver;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The {@code CachingSolver} class answers from a {@link SolutionCache} when it can and asks another solver
+ * when it cannot. A position is answered from the cache when every position along its cached moves is
+ * still cached down to the solved board. Otherwise the delegate solves it, and since every tail of a
+ * shortest solution is itself a shortest solution, each position along the new solution is cached with
+ * its move and remaining distance. Partial solutions of a search that ran out of time are passed on but
+ * not cached; when a completing solver is given, the position is handed to it on a background executor
+ * and its shortest solution is cached once found, so the next request for the position is a hit.
+ */
+public class CachingSolver implements Solver {
+    private final Solver delegate;
+    private final SolutionCache cache;
+    private final Solver completer;
+    private final Executor background;
+
+    public CachingSolver(Solver delegate, SolutionCache cache) {
+        this(delegate, cache, null, null);
+    }
+
+    /**
+     * @param completer  finds shortest solutions for the positions the delegate gave up on
+     * @param background runs the completer
+     */
+    public CachingSolver(Solver delegate, SolutionCache cache, Solver completer, Executor background) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.completer = completer;
+        this.background = background;
+    }
+
+    @Override
+    public Solution solve(long start) {
+        long begin = System.nanoTime();
+        int[] cached = fromCache(start);
+        if (cached != null) {
+            return new Solution(cached, 0, System.nanoTime() - begin);
+        }
+        Solution solution = delegate.solve(start);
+        if (solution.isComplete()) {
+            store(start, solution);
+        } else if (completer != null) {
+            background.execute(() -> complete(start));
+        }
+        return solution;
+    }
+
+    // Runs on the background executor; an earlier completion may have cached the position already
+    private void complete(long start) {
+        if (fromCache(start) != null) {
+            return;
+        }
+        Solution solution = completer.solve(start);
+        if (solution.isComplete()) {
+            store(start, solution);
+        }
+    }
+
+    public SolutionCache getCache() {
+        return cache;
+    }
+
+    private void store(long start, Solution solution) {
+        long state = start;
+        int[] moves = solution.getMoveCodes();
+        for (int i = 0; i < moves.length; i++) {
+            cache.put(state, moves[i], moves.length - i);
+            state = PackedState.applyMove(state, PackedState.moveFrom(moves[i]), PackedState.moveTo(moves[i]));
+        }
+    }
+
+    private int[] fromCache(long state) {
+        if (PackedState.isSolved(state)) {
+            return new int[0];
+        }
+        int entry = cache.get(state);
+        if (entry == SolutionCache.MISS) {
+            return null;
+        }
+        int[] moves = new int[SolutionCache.distanceOf(entry)];
+        for (int i = 0; i < moves.length; i++) {
+            if (i > 0) {
+                entry = cache.get(state);
+                if (entry == SolutionCache.MISS || SolutionCache.distanceOf(entry) != moves.length - i) {
+                    return null;
+                }
+            }
+            moves[i] = SolutionCache.moveOf(entry);
+            state = PackedState.applyMove(state, PackedState.moveFrom(moves[i]), PackedState.moveTo(moves[i]));
+        }
+        return PackedState.isSolved(state) ? moves : null;
+    }
+}
@@ -0,0 +1,19 @@
+package solver;
+
+/**
+ * The {@code DistanceOracle} interface answers how many moves a packed position is from the solved board.
+ * {@link DistanceTable} answers with a single lookup; {@link #of(Solver)} adapts any solver, at the cost of
+ * a search per query.
+ */
+@FunctionalInterface
+public interface DistanceOracle {
+
+    /**
+     * Returns the optimal number of moves needed to solve {@code state}, or -1 if it is not known.
+     */
+    int distance(long state);
+
+    static DistanceOracle of(Solver solver) {
+        return state -> solver.solve(state).length();
+    }
+}
@@ -0,0 +1,115 @@
+package solver;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@code DistanceTable} class answers optimal-distance queries from a table written by
+ * {@link DistanceTableBuilder}. The file is memory-mapped read-only, so opening it costs nothing on the
+ * heap and each lookup is a single byte read at the position's {@link StateRank rank}.
+ *
+ * <p>File layout: a 16-byte big-endian header (magic, number of entries, maximum distance, reserved)
+ * followed by one unsigned distance byte per rank, {@link #UNKNOWN} for positions that were not reached.
+ * As a {@link Solver} the table walks {@link #bestMove(long)} down to the goal, one lookup round per move.
+ */
+public final class DistanceTable implements Solver, DistanceOracle {
+    /** Default location of the table file. */
+    public static final String DEFAULT_FILE = "distances.bin";
+    /** Stored for positions without a known distance. */
+    public static final int UNKNOWN = 0xFF;
+
+    static final int MAGIC = 0x53445431; // "SDT1"
+    static final int HEADER_SIZE = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int maxDistance;
+
+    private DistanceTable(MappedByteBuffer buffer, int maxDistance) {
+        this.buffer = buffer;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Maps a table file into memory.
+     *
+     * @throws IOException if the file cannot be read or is not a distance table
+     */
+    public static DistanceTable open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size != HEADER_SIZE + (long) StateRank.COUNT) {
+                throw new IOException("Unexpected distance table size " + size + " in " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != StateRank.COUNT) {
+                throw new IOException("Not a distance table: " + file);
+            }
+            return new DistanceTable(buffer, buffer.getInt(8));
+        }
+    }
+
+    /**
+     * Returns the number of moves needed to solve {@code state}, or -1 if the table does not know it.
+     */
+    @Override
+    public int distance(long state) {
+        int distance = buffer.get(HEADER_SIZE + StateRank.rank(state)) & 0xFF;
+        return distance == UNKNOWN ? -1 : distance;
+    }
+
+    public int distance(Game game) {
+        return distance(PackedState.encode(game));
+    }
+
+    /**
+     * Returns the code of a move that brings {@code state} one step closer to the solved board, or -1 when
+     * the position is solved or its distance is unknown.
+     */
+    public int bestMove(long state) {
+        int distance = distance(state);
+        if (distance <= 0) {
+            return -1;
+        }
+        // walks the move masks directly, so a lookup allocates nothing
+        int occupied = MoveGenerator.occupiedMask(state);
+        int empty = MoveGenerator.emptyMask(state);
+        while (empty != 0) {
+            int to = Integer.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            int sources = MoveGenerator.adjacentMask(to) & occupied;
+            while (sources != 0) {
+                int from = Integer.numberOfTrailingZeros(sources);
+                sources &= sources - 1;
+                if (distance(PackedState.applyMove(state, from, to)) == distance - 1) {
+                    return PackedState.moveCode(from, to);
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Solution solve(long state) {
+        long begin = System.nanoTime();
+        int distance = distance(state);
+        if (distance < 0) {
+            return new Solution(null, 0, System.nanoTime() - begin);
+        }
+        int[] moves = new int[distance];
+        for (int i = 0; i < distance; i++) {
+            moves[i] = bestMove(state);
+            state = PackedState.applyMove(state, PackedState.moveFrom(moves[i]), PackedState.moveTo(moves[i]));
+        }
+        return new Solution(moves, distance, System.nanoTime() - begin);
+    }
+
+    /**
+     * Returns the largest distance stored in the table.
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+}
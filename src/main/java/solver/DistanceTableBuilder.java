@@ -0,0 +1,125 @@
+package solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The {@code DistanceTableBuilder} class enumerates every position with a retrograde breadth-first search
+ * from the solved board and records each position's distance to the goal. Moves are reversible, so a
+ * backward step is an ordinary move. The search keeps no queue: layer {@code d + 1} is found by scanning
+ * the table for entries at depth {@code d} and expanding them, which needs one byte per position and
+ * nothing else. The result is written in the format read by {@link DistanceTable}.
+ */
+public class DistanceTableBuilder {
+    private static final Logger logger = LogManager.getLogger(DistanceTableBuilder.class);
+
+    private final int maxDepth;
+    private long[] levelCounts = new long[0];
+
+    public DistanceTableBuilder() {
+        this(DistanceTable.UNKNOWN - 1);
+    }
+
+    /**
+     * Creates a builder that stops after layer {@code maxDepth}; deeper positions stay unknown.
+     */
+    public DistanceTableBuilder(int maxDepth) {
+        if (maxDepth < 0 || maxDepth >= DistanceTable.UNKNOWN) {
+            throw new IllegalArgumentException("maxDepth out of range: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Runs the search and returns one distance byte per rank, {@link DistanceTable#UNKNOWN} where unreached.
+     */
+    public byte[] build() {
+        byte[] distances = new byte[StateRank.COUNT];
+        Arrays.fill(distances, (byte) DistanceTable.UNKNOWN);
+        distances[StateRank.rank(PackedState.SOLVED)] = 0;
+
+        long[] counts = new long[maxDepth + 1];
+        counts[0] = 1;
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int depth = 0;
+        while (depth < maxDepth) {
+            byte current = (byte) depth;
+            byte next = (byte) (depth + 1);
+            long found = 0;
+            for (int rank = 0; rank < distances.length; rank++) {
+                if (distances[rank] != current) {
+                    continue;
+                }
+                long state = StateRank.unrank(rank);
+                int count = MoveGenerator.generate(state, buffer);
+                for (int i = 0; i < count; i++) {
+                    int move = buffer[i];
+                    long neighbour = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+                    int neighbourRank = StateRank.rank(neighbour);
+                    if (distances[neighbourRank] == (byte) DistanceTable.UNKNOWN) {
+                        distances[neighbourRank] = next;
+                        found++;
+                    }
+                }
+            }
+            if (found == 0) {
+                break;
+            }
+            depth++;
+            counts[depth] = found;
+            logger.info("Depth {}: {} positions", depth, found);
+        }
+        levelCounts = Arrays.copyOf(counts, depth + 1);
+        return distances;
+    }
+
+    /**
+     * Returns the number of positions found at each depth by the last {@link #build()}.
+     */
+    public long[] getLevelCounts() {
+        return levelCounts.clone();
+    }
+
+    /**
+     * Builds the table and writes it to {@code file}.
+     */
+    public void buildTo(Path file) throws IOException {
+        byte[] distances = build();
+        write(distances, levelCounts.length - 1, file);
+    }
+
+    static void write(byte[] distances, int maxDistance, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(DistanceTable.HEADER_SIZE);
+            header.putInt(DistanceTable.MAGIC);
+            header.putInt(distances.length);
+            header.putInt(maxDistance);
+            header.putInt(0);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            ByteBuffer body = ByteBuffer.wrap(distances);
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args.length > 0 ? args[0] : DistanceTable.DEFAULT_FILE);
+        long begin = System.nanoTime();
+        DistanceTableBuilder builder = new DistanceTableBuilder();
+        builder.buildTo(file);
+        logger.info("Wrote {} positions with maximum distance {} to {} in {} s", StateRank.COUNT,
+                builder.getLevelCounts().length - 1, file, (System.nanoTime() - begin) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,424 @@
+package solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * The {@code ExternalBreadthFirstSearch} class counts the positions at each depth of a {@link StateSpace}
+ * too large to hold in memory, keeping the layers on disk. Duplicates are detected late: the successors of
+ * a layer are collected in a fixed-size buffer without looking anything up, and each time the buffer fills
+ * it is sorted, stripped of repeats and written out as a sorted run. When the layer is done the runs are
+ * merged in one streaming pass. Moves are reversible, so every successor of layer {@code d} lies in layer
+ * {@code d - 1}, {@code d} or {@code d + 1}; reading the sorted files of the two previous layers alongside
+ * the merge drops every position seen before, and what remains is written as the sorted file of layer
+ * {@code d + 1}. Only the two latest layers are kept.
+ *
+ * <p>The heap holds the sort buffer and nothing that grows with the state space. Files are read and
+ * written sequentially through reusable direct buffers, at most one per open file; when a layer produces
+ * more runs than the merge fan-in, groups of runs are first merged into larger runs, which bounds the
+ * number of open files. Positions are stored as 8-byte big-endian values with no header. All files live
+ * in a fresh directory under the one given, which is deleted when the search ends.
+ */
+public class ExternalBreadthFirstSearch {
+    /** Positions held by the sort buffer when no size is given: 32 MB of heap. */
+    public static final int DEFAULT_BUFFER_POSITIONS = 1 << 22;
+    /** Size of each file buffer when none is given. */
+    public static final int DEFAULT_IO_BUFFER_BYTES = 1 << 20;
+    /** Largest number of runs merged at once when none is given. */
+    public static final int DEFAULT_FAN_IN = 64;
+
+    private static final Logger logger = LogManager.getLogger(ExternalBreadthFirstSearch.class);
+
+    private final Path directory;
+    private final int bufferPositions;
+    private final int ioBufferBytes;
+    private final int fanIn;
+
+    /**
+     * The outcome of a search.
+     *
+     * @param counts       the number of positions at each depth, index 0 being the root
+     * @param bytesWritten bytes written to disk for runs and layers
+     * @param elapsedNanos time the search took
+     */
+    public record Result(long[] counts, long bytesWritten, long elapsedNanos) {
+        /**
+         * Returns the depth of the deepest positions found: the largest distance from the root when the
+         * search ran to the end.
+         */
+        public int maxDistance() {
+            return counts.length - 1;
+        }
+
+        public long positions() {
+            return Arrays.stream(counts).sum();
+        }
+    }
+
+    public ExternalBreadthFirstSearch(Path directory) {
+        this(directory, DEFAULT_BUFFER_POSITIONS, DEFAULT_IO_BUFFER_BYTES, DEFAULT_FAN_IN);
+    }
+
+    /**
+     * @param directory       where the working directory is created
+     * @param bufferPositions number of positions sorted in memory per run
+     * @param ioBufferBytes   size of each file buffer, rounded down to a whole number of positions
+     * @param fanIn           largest number of runs merged at once, at least 2
+     * @throws IllegalArgumentException if a size is too small
+     */
+    public ExternalBreadthFirstSearch(Path directory, int bufferPositions, int ioBufferBytes, int fanIn) {
+        if (bufferPositions <= 0 || ioBufferBytes < Long.BYTES || fanIn < 2) {
+            throw new IllegalArgumentException("Invalid sizes: buffer " + bufferPositions + ", I/O buffer "
+                    + ioBufferBytes + ", fan-in " + fanIn);
+        }
+        this.directory = directory;
+        this.bufferPositions = bufferPositions;
+        this.ioBufferBytes = ioBufferBytes / Long.BYTES * Long.BYTES;
+        this.fanIn = fanIn;
+    }
+
+    /**
+     * Explores every position reachable from {@code root}.
+     */
+    public Result explore(StateSpace space, long root) throws IOException {
+        return explore(space, root, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Explores the positions reachable from {@code root} in at most {@code maxDepth} moves.
+     *
+     * @throws IllegalArgumentException if the sort buffer cannot hold the successors of one position
+     */
+    public Result explore(StateSpace space, long root, int maxDepth) throws IOException {
+        if (space.maxSuccessors() > bufferPositions) {
+            throw new IllegalArgumentException("Buffer of " + bufferPositions + " positions cannot hold "
+                    + space.maxSuccessors() + " successors");
+        }
+        Files.createDirectories(directory);
+        Path work = Files.createTempDirectory(directory, "bfs-");
+        try {
+            return new Search(space, work).run(root, maxDepth);
+        } finally {
+            deleteAll(work);
+        }
+    }
+
+    /**
+     * The state of one search: its working directory, the sort buffer and the pool of file buffers.
+     */
+    private final class Search {
+        private final long begin = System.nanoTime();
+        private final StateSpace space;
+        private final Path work;
+        private final long[] buffer = new long[bufferPositions];
+        private final ArrayDeque<ByteBuffer> ioBuffers = new ArrayDeque<>();
+        private int files;
+        private long bytesWritten;
+
+        Search(StateSpace space, Path work) {
+            this.space = space;
+            this.work = work;
+        }
+
+        Result run(long root, int maxDepth) throws IOException {
+            Path previous = null;
+            Path current = newFile();
+            try (Writer writer = new Writer(current)) {
+                writer.write(root);
+            }
+            long[] counts = new long[64];
+            counts[0] = 1;
+            int depth = 0;
+            while (depth < maxDepth) {
+                long start = System.nanoTime();
+                List<Path> runs = expand(current);
+                int runCount = runs.size();
+                while (runs.size() > fanIn) {
+                    List<Path> group = runs.subList(0, fanIn);
+                    Path merged = newFile();
+                    merge(group, merged, List.of());
+                    deleteFiles(group);
+                    group.clear();
+                    runs.add(merged);
+                }
+                Path next = newFile();
+                long found = merge(runs, next, previous == null ? List.of(current) : List.of(previous, current));
+                deleteFiles(runs);
+                if (previous != null) {
+                    Files.delete(previous);
+                }
+                previous = current;
+                current = next;
+                if (found == 0) {
+                    break;
+                }
+                depth++;
+                if (depth == counts.length) {
+                    counts = Arrays.copyOf(counts, depth * 2);
+                }
+                counts[depth] = found;
+                logger.debug("Depth {}: {} positions from {} runs in {} ms", depth, found, runCount,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+            return new Result(Arrays.copyOf(counts, depth + 1), bytesWritten, System.nanoTime() - begin);
+        }
+
+        // Writes the successors of every position in the layer as sorted runs
+        private List<Path> expand(Path layer) throws IOException {
+            List<Path> runs = new ArrayList<>();
+            int max = space.maxSuccessors();
+            int size = 0;
+            try (Reader reader = new Reader(layer)) {
+                while (reader.advance()) {
+                    if (size + max > buffer.length) {
+                        runs.add(writeRun(size));
+                        size = 0;
+                    }
+                    size += space.successors(reader.current(), buffer, size);
+                }
+            }
+            if (size > 0) {
+                runs.add(writeRun(size));
+            }
+            return runs;
+        }
+
+        private Path writeRun(int size) throws IOException {
+            Arrays.sort(buffer, 0, size);
+            Path run = newFile();
+            try (Writer writer = new Writer(run)) {
+                for (int i = 0; i < size; i++) {
+                    if (i == 0 || buffer[i] != buffer[i - 1]) {
+                        writer.write(buffer[i]);
+                    }
+                }
+            }
+            return run;
+        }
+
+        /**
+         * Merges sorted inputs into {@code output}, writing each position once and skipping those found in
+         * any of the sorted {@code seen} files.
+         *
+         * @return the number of positions written
+         */
+        private long merge(List<Path> inputs, Path output, List<Path> seen) throws IOException {
+            List<Reader> open = new ArrayList<>();
+            try (Writer writer = new Writer(output)) {
+                PriorityQueue<Reader> queue = new PriorityQueue<>(Math.max(inputs.size(), 1),
+                        Comparator.comparingLong(Reader::current));
+                for (Path input : inputs) {
+                    Reader reader = new Reader(input);
+                    open.add(reader);
+                    if (reader.advance()) {
+                        queue.add(reader);
+                    }
+                }
+                Reader[] filters = new Reader[seen.size()];
+                for (int i = 0; i < filters.length; i++) {
+                    filters[i] = new Reader(seen.get(i));
+                    open.add(filters[i]);
+                    filters[i].advance();
+                }
+                boolean first = true;
+                long last = 0;
+                while (!queue.isEmpty()) {
+                    Reader reader = queue.poll();
+                    long state = reader.current();
+                    if (reader.advance()) {
+                        queue.add(reader);
+                    }
+                    if ((first || state != last) && !contains(filters, state)) {
+                        writer.write(state);
+                    }
+                    first = false;
+                    last = state;
+                }
+                return writer.count();
+            } finally {
+                for (Reader reader : open) {
+                    reader.close();
+                }
+            }
+        }
+
+        private boolean contains(Reader[] filters, long state) throws IOException {
+            for (Reader filter : filters) {
+                if (filter.skipTo(state)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Path newFile() {
+            return work.resolve(String.format("%06d.bin", files++));
+        }
+
+        private ByteBuffer takeBuffer() {
+            ByteBuffer ioBuffer = ioBuffers.poll();
+            return ioBuffer != null ? ioBuffer.clear() : ByteBuffer.allocateDirect(ioBufferBytes);
+        }
+
+        /**
+         * Reads a sorted file one position at a time.
+         */
+        private final class Reader implements AutoCloseable {
+            private final FileChannel channel;
+            private final ByteBuffer ioBuffer = takeBuffer().flip();
+            private boolean exhausted;
+            private long current;
+
+            Reader(Path file) throws IOException {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            }
+
+            boolean advance() throws IOException {
+                if (!ioBuffer.hasRemaining()) {
+                    ioBuffer.clear();
+                    while (ioBuffer.hasRemaining() && channel.read(ioBuffer) >= 0) {
+                        // keep filling until the buffer is full or the file ends
+                    }
+                    ioBuffer.flip();
+                    if (ioBuffer.remaining() % Long.BYTES != 0) {
+                        throw new IOException("Truncated layer file");
+                    }
+                }
+                exhausted = !ioBuffer.hasRemaining();
+                if (!exhausted) {
+                    current = ioBuffer.getLong();
+                }
+                return !exhausted;
+            }
+
+            long current() {
+                return current;
+            }
+
+            // Moves past every position below state and tells whether state itself comes next
+            boolean skipTo(long state) throws IOException {
+                while (!exhausted && current < state) {
+                    advance();
+                }
+                return !exhausted && current == state;
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+                ioBuffers.push(ioBuffer);
+            }
+        }
+
+        /**
+         * Appends positions to a new file.
+         */
+        private final class Writer implements AutoCloseable {
+            private final FileChannel channel;
+            private final ByteBuffer ioBuffer = takeBuffer();
+            private long count;
+
+            Writer(Path file) throws IOException {
+                this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            }
+
+            void write(long state) throws IOException {
+                if (!ioBuffer.hasRemaining()) {
+                    flush();
+                }
+                ioBuffer.putLong(state);
+                count++;
+            }
+
+            long count() {
+                return count;
+            }
+
+            private void flush() throws IOException {
+                ioBuffer.flip();
+                bytesWritten += ioBuffer.remaining();
+                while (ioBuffer.hasRemaining()) {
+                    channel.write(ioBuffer);
+                }
+                ioBuffer.clear();
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+                channel.close();
+                ioBuffers.push(ioBuffer);
+            }
+        }
+    }
+
+    private static void deleteFiles(List<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    private static void deleteAll(Path work) throws IOException {
+        try (Stream<Path> files = Files.list(work)) {
+            files.forEach(file -> {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.delete(work);
+    }
+
+    /**
+     * Counts the positions at each distance from the solved board.
+     * Usage: {@code [--layout classic|wide] [--dir directory] [--buffer positions] [--max-depth n]}.
+     */
+    public static void main(String[] args) throws IOException {
+        StateSpace space = StateSpace.CLASSIC;
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"));
+        int bufferPositions = DEFAULT_BUFFER_POSITIONS;
+        int maxDepth = Integer.MAX_VALUE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--layout" -> space = switch (args[++i]) {
+                    case "classic" -> StateSpace.CLASSIC;
+                    case "wide" -> new LayoutStateSpace(BoardLayout.WIDE);
+                    // the large layout does not pack into a long, see LayoutStateSpace
+                    default -> throw new IllegalArgumentException("Unsupported layout " + args[i]
+                            + ", expected classic or wide");
+                };
+                case "--dir" -> directory = Path.of(args[++i]);
+                case "--buffer" -> bufferPositions = Integer.parseInt(args[++i]);
+                case "--max-depth" -> maxDepth = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        Result result = new ExternalBreadthFirstSearch(directory, bufferPositions, DEFAULT_IO_BUFFER_BYTES,
+                DEFAULT_FAN_IN).explore(space, space.goal(), maxDepth);
+        long[] counts = result.counts();
+        for (int depth = 0; depth < counts.length; depth++) {
+            logger.info("Depth {}: {} positions", depth, counts[depth]);
+        }
+        logger.info("{} positions with maximum distance {} in {} s, {} MB written", result.positions(),
+                result.maxDistance(), result.elapsedNanos() / 1_000_000_000L, result.bytesWritten() >> 20);
+    }
+}
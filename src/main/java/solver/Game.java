@@ -1,58 +1,112 @@
 package solver;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 /**
  * The {@code Game} class represents a puzzle game where a player needs to arrange numbers on a board.
- * The board contains some fixed black boxes that cannot be moved or replaced.
+ * The board contains some fixed black boxes that cannot be moved or replaced. Its shape, the black boxes,
+ * the start and the goal come from a {@link BoardLayout}, {@link BoardLayout#CLASSIC} unless another one
+ * is given.
+ * A 64-bit Zobrist hash of the board is kept up to date by every move, so {@link #positionKey()} costs
+ * O(1). {@link #equals(Object)}, {@link #hashCode()} and {@link #BY_POSITION} always read the board itself
+ * and stay correct when the array returned by {@link #getBoard()} is edited directly; only the position
+ * key then needs a {@link #rehash()}.
  */
 public class Game implements Cloneable{
-    private static final Set<String> blackBoxes = new HashSet<>(Set.of(
-            "0,0", "0,1", "0,2", "0,4", "0,6", "0,8", "0,9"
-    ));
+
+    /**
+     * Orders games by their position only, ignoring the move counter.
+     */
+    public static final Comparator<Game> BY_POSITION = (a, b) -> {
+        for (int row = 0; row < a.board.length; row++) {
+            int byRow = Arrays.compare(a.board[row], b.board[row]);
+            if (byRow != 0) {
+                return byRow;
+            }
+        }
+        return 0;
+    };
+
+    private final BoardLayout layout;
     char[][] board;
     private int emptyRow;
     private int emptyCol;
     private int moves;
+    private long zobrist;
 
     public Game() {
+        this(BoardLayout.CLASSIC);
+    }
+
+    public Game(BoardLayout layout) {
+        this.layout = layout;
         resetGame();
     }
 
     // Constructor for testing purposes
     public Game(char[][] board, int emptyRow, int emptyCol, int moves) {
+        this(BoardLayout.CLASSIC, board, emptyRow, emptyCol, moves);
+    }
+
+    public Game(BoardLayout layout, char[][] board, int emptyRow, int emptyCol, int moves) {
+        this.layout = layout;
         this.board = board;
         this.emptyRow = emptyRow;
         this.emptyCol = emptyCol;
         this.moves = moves;
+        rehash();
     }
 
 
     public void resetGame() {
-        board = new char[][]{
-                {'X', 'X', 'X', ' ', 'X', ' ', 'X', ' ', 'X', 'X'},
-                {' ', '2', '3', '4', '5', '6', '7', '8', '9', '1'}
-        };
-        emptyRow = 1;
-        emptyCol = 0;
+        board = layout.startBoard();
+        emptyRow = layout.rowOf(layout.startEmpty());
+        emptyCol = layout.colOf(layout.startEmpty());
         moves = 0;
+        rehash();
+    }
+
+    /**
+     * Recomputes the position key from the board. Only needed after the array returned by
+     * {@link #getBoard()} has been modified directly.
+     */
+    public void rehash() {
+        long hash = 0;
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                hash ^= layout.zobristKey(layout.index(row, col), board[row][col]);
+            }
+        }
+        zobrist = hash;
+    }
+
+    /**
+     * Returns a 64-bit hash of the position that ignores the move counter: two games holding the same
+     * board have the same key no matter how many moves it took to get there.
+     */
+    public long positionKey() {
+        return zobrist;
+    }
+
+    /**
+     * Returns {@code true} if both games hold the same board, regardless of their move counters.
+     */
+    public boolean samePosition(Game other) {
+        return layout == other.layout && Arrays.deepEquals(board, other.board);
     }
 
     public boolean isLegalToMoveFrom(int[] from) {
         int fromRow = from[0];
         int fromCol = from[1];
-        return fromRow >= 0 && fromRow < 2 && fromCol >= 0 && fromCol < 10 && board[fromRow][fromCol] != ' ';
+        return isOnBoard(fromRow, fromCol) && board[fromRow][fromCol] != ' ';
     }
 
     public boolean isSolved() {
-        char[][] solvedBoard = {
-                {'X', 'X', 'X', ' ', 'X', ' ', 'X', ' ', 'X', 'X'},
-                {'1', '2', '3', '4', '5', '6', '7', '8', '9', ' '}
-        };
-        return Arrays.deepEquals(board, solvedBoard);
+        return layout.isGoal(board);
     }
 
     public boolean isLegalMove(int[] from, int[] to) {
@@ -63,40 +117,93 @@ public class Game implements Cloneable{
 
         if ((Math.abs(fromRow - toRow) == 1 && fromCol == toCol) ||
                 (Math.abs(fromCol - toCol) == 1 && fromRow == toRow)) {
-            return isLegalToMoveFrom(from) && toRow >= 0 && toRow < 2 && toCol >= 0 && toCol < 10 &&
-                    !blackBoxes.contains(toRow + "," + toCol) && board[toRow][toCol] == ' ';
+            return isLegalStep(fromRow, fromCol, toRow, toCol);
         }
         return false;
     }
 
+    private boolean isLegalStep(int fromRow, int fromCol, int toRow, int toCol) {
+        return isOnBoard(fromRow, fromCol) && board[fromRow][fromCol] != ' ' && isOnBoard(toRow, toCol) &&
+                !isBlackBox(toRow, toCol) && board[toRow][toCol] == ' ';
+    }
+
+    private boolean isOnBoard(int row, int col) {
+        return layout.isOnBoard(row, col);
+    }
+
     public void makeMove(int[] from, int[] to) {
         if (isLegalMove(from, to)) {
-            board[to[0]][to[1]] = board[from[0]][from[1]];
-            board[from[0]][from[1]] = ' ';
-            emptyRow = to[0];
-            emptyCol = to[1];
-            moves++;
+            applyMove(from[0], from[1], to[0], to[1]);
         }
     }
 
+    private void applyMove(int fromRow, int fromCol, int toRow, int toCol) {
+        char value = board[fromRow][fromCol];
+        zobrist ^= layout.zobristKey(layout.index(fromRow, fromCol), value)
+                ^ layout.zobristKey(layout.index(toRow, toCol), value);
+        board[toRow][toCol] = value;
+        board[fromRow][fromCol] = ' ';
+        emptyRow = toRow;
+        emptyCol = toCol;
+        moves++;
+    }
+
     public Set<int[][]> getLegalMoves() {
         Set<int[][]> legalMoves = new HashSet<>();
-        for (int fromRow = 0; fromRow < 2; fromRow++) {
-            for (int fromCol = 0; fromCol < 10; fromCol++) {
-                for (int toRow = 0; toRow < 2; toRow++) {
-                    for (int toCol = 0; toCol < 10; toCol++) {
-                        int[] from = {fromRow, fromCol};
-                        int[] to = {toRow, toCol};
-                        if (isLegalMove(from, to)) {
-                            legalMoves.add(new int[][]{from, to});
-                        }
-                    }
+        int cells = layout.rows() * layout.cols();
+        for (int from = 0; from < cells; from++) {
+            int fromRow = layout.rowOf(from);
+            int fromCol = layout.colOf(from);
+            for (int to : layout.neighbours(from)) {
+                int toRow = layout.rowOf(to);
+                int toCol = layout.colOf(to);
+                if (isLegalStep(fromRow, fromCol, toRow, toCol)) {
+                    legalMoves.add(new int[][]{{fromRow, fromCol}, {toRow, toCol}});
                 }
             }
         }
         return legalMoves;
     }
 
+    /**
+     * Writes the legal tile moves of the current position into {@code buffer} without allocating. Unlike
+     * {@link #getLegalMoves()} this only considers numbered tiles, never the black boxes. Moves are grid
+     * codes of {@link BoardLayout#moveCode(int, int)}, which work on every layout; they are not the cell
+     * codes of {@link PackedState#moveCode(int, int)} that solutions, replays and {@link MoveGenerator} use.
+     *
+     * @param buffer receives the moves, must hold at least {@link BoardLayout#maxMoves()} entries
+     * @return the number of moves written
+     */
+    public int getLegalGridMoves(int[] buffer) {
+        long tiles = 0;
+        long occupied = 0;
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                char value = board[row][col];
+                if (value != BoardLayout.EMPTY) {
+                    long bit = 1L << layout.index(row, col);
+                    occupied |= bit;
+                    if (value != BoardLayout.BLOCKED) {
+                        tiles |= bit;
+                    }
+                }
+            }
+        }
+        long empty = layout.playableMask() & ~occupied;
+        int count = 0;
+        while (empty != 0) {
+            int to = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            long sources = layout.neighbourMask(to) & tiles;
+            while (sources != 0) {
+                int from = Long.numberOfTrailingZeros(sources);
+                sources &= sources - 1;
+                buffer[count++] = BoardLayout.moveCode(from, to);
+            }
+        }
+        return count;
+    }
+
     public Game clone() {
         Game copy;
         try {
@@ -115,7 +222,8 @@ public class Game implements Cloneable{
         if (this == o) return true;
         if (!(o instanceof Game)) return false;
         Game game = (Game) o;
-        return emptyRow == game.emptyRow &&
+        return layout == game.layout &&
+                emptyRow == game.emptyRow &&
                 emptyCol == game.emptyCol &&
                 moves == game.moves &&
                 Arrays.deepEquals(board, game.board);
@@ -127,6 +235,14 @@ public class Game implements Cloneable{
         return result;
     }
 
+    public BoardLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the game's own board, not a copy. After changing it directly call {@link #rehash()}, or
+     * {@link #positionKey()} goes on describing the old board.
+     */
     public char[][] getBoard() {
         return board;
     }
@@ -144,18 +260,14 @@ public class Game implements Cloneable{
     }
 
     public boolean isBlackBox(int row, int col) {
-        return blackBoxes.contains(row + "," + col);
+        return layout.isBlocked(row, col);
     }
 
     public boolean move(int row, int col, int targetRow, int targetCol) {
         int[] from = {row, col};
         int[] to = {targetRow, targetCol};
         if (isLegalMove(from, to)) {
-            board[targetRow][targetCol] = board[row][col];
-            board[row][col] = ' ';
-            emptyRow = targetRow;
-            emptyCol = targetCol;
-            moves++;
+            applyMove(row, col, targetRow, targetCol);
             return true;
         }
         return false;
@@ -0,0 +1,208 @@
+package solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code GameServer} class hosts many independent games for bots, tournaments and load tests. It
+ * listens on the loopback interface and serves each connection on its own virtual thread, so thousands of
+ * mostly idle clients cost little more than their sockets. Games live in a {@link SessionStore}; a
+ * connection may open any number of sessions and a session outlives the connection that created it until
+ * it is closed or evicted for being idle.
+ *
+ * <p>The protocol is one request per line and one response per line. Cells are given as row and column
+ * of {@link Game#getBoard()}:
+ * <pre>
+ * NEW                                  OK id
+ * MOVE id fromRow fromCol toRow toCol  OK moves [SOLVED] | ILLEGAL | UNKNOWN
+ * BOARD id                             OK moves board    (board as in PackedState.toBoardString)
+ * RESET id                             OK | UNKNOWN
+ * CLOSE id                             OK | UNKNOWN
+ * QUIT                                 BYE, then the connection is closed
+ * </pre>
+ * Anything else is answered with {@code ERROR} and a reason. Responses are flushed once the client has no
+ * further requests buffered, so pipelined requests share a write.
+ */
+public class GameServer implements Closeable {
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 7471;
+
+    private static final Logger logger = LogManager.getLogger(GameServer.class);
+
+    private final SessionStore sessions;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Binds the server to {@code port} on the loopback interface; 0 picks a free port.
+     */
+    public GameServer(SessionStore sessions, int port) throws IOException {
+        this.sessions = sessions;
+        this.serverSocket = new ServerSocket(port, 4096, InetAddress.getLoopbackAddress());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts accepting connections and evicting idle sessions in the background.
+     */
+    public void start() {
+        long sweepMillis = Math.max(sessions.getIdleTimeout().toMillis() / 2, 1);
+        sweeper.scheduleWithFixedDelay(() -> {
+            int evicted = sessions.evictIdle();
+            if (evicted > 0) {
+                logger.info("Evicted {} idle sessions, {} remain", evicted, sessions.size());
+            }
+        }, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        Thread.ofVirtual().name("game-server-accept").start(this::acceptConnections);
+        logger.info("Game server listening on {}", serverSocket.getLocalSocketAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Executes one request line and returns the response line, without the line terminator.
+     */
+    String execute(String line) {
+        String[] words = line.trim().split(" +");
+        try {
+            switch (words[0]) {
+                case "NEW" -> {
+                    long id = sessions.create();
+                    return id < 0 ? "ERROR server full" : "OK " + id;
+                }
+                case "MOVE" -> {
+                    expectWords(words, 6);
+                    long id = Long.parseLong(words[1]);
+                    int from = PackedState.cellOf(Integer.parseInt(words[2]), Integer.parseInt(words[3]));
+                    int to = PackedState.cellOf(Integer.parseInt(words[4]), Integer.parseInt(words[5]));
+                    int result = sessions.move(id, from, to);
+                    if (result == SessionStore.UNKNOWN) {
+                        return "UNKNOWN";
+                    }
+                    if (result == SessionStore.ILLEGAL) {
+                        return "ILLEGAL";
+                    }
+                    int moves = SessionStore.movesOf(result);
+                    return SessionStore.isSolved(result) ? "OK " + moves + " SOLVED" : "OK " + moves;
+                }
+                case "BOARD" -> {
+                    expectWords(words, 2);
+                    long id = Long.parseLong(words[1]);
+                    long state = sessions.state(id);
+                    int moves = sessions.moves(id);
+                    return state < 0 || moves < 0
+                            ? "UNKNOWN"
+                            : "OK " + moves + " " + PackedState.toBoardString(state);
+                }
+                case "RESET" -> {
+                    expectWords(words, 2);
+                    return sessions.reset(Long.parseLong(words[1])) ? "OK" : "UNKNOWN";
+                }
+                case "CLOSE" -> {
+                    expectWords(words, 2);
+                    return sessions.close(Long.parseLong(words[1])) ? "OK" : "UNKNOWN";
+                }
+                default -> {
+                    return "ERROR unknown command " + words[0];
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return "ERROR " + e.getMessage();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sweeper.shutdownNow();
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.submit(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.error("Failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer writer = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().equals("QUIT")) {
+                    writer.write("BYE\n");
+                    break;
+                }
+                writer.write(execute(line));
+                writer.write('\n');
+                if (!reader.ready()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Connection closed: {}", e.getMessage());
+        }
+    }
+
+    private static void expectWords(String[] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException(words[0] + " expects " + (count - 1) + " arguments");
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     * Usage: {@code [--port n] [--capacity sessions] [--idle seconds]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        int capacity = 1 << 16;
+        Duration idle = Duration.ofMinutes(10);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--capacity" -> capacity = Integer.parseInt(args[++i]);
+                case "--idle" -> idle = Duration.ofSeconds(Long.parseLong(args[++i]));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        GameServer server = new GameServer(new SessionStore(capacity, idle), port);
+        server.start();
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,184 @@
+package solver;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongToIntFunction;
+
+/**
+ * The {@code IdaStarSolver} class finds a shortest solution with iterative-deepening A*: a depth-first
+ * search that abandons every path whose cost so far plus the heuristic exceeds a threshold, restarted with
+ * the smallest cost that went over until a solution turns up. Nothing is remembered but the current path,
+ * so memory stays linear in the depth however long the search runs.
+ *
+ * <p>The search can be given a time budget and a cancellation check. When either stops it,
+ * {@link #search} still answers with what it has proven so far: the threshold being searched is a lower
+ * bound on the solution length, since every shorter candidate was ruled out by the previous iterations, and
+ * the path that got closest to the goal by the heuristic is returned as the best partial solution.
+ * {@link #solve(long)} applies the budget given at construction and treats an interrupt of the calling
+ * thread as cancellation.
+ */
+public class IdaStarSolver implements Solver {
+    private static final int DEADLINE_CHECK_MASK = 0x3FF;
+    private static final int FOUND = -1;
+    private static final int STOPPED = Integer.MAX_VALUE;
+
+    private final LongToIntFunction heuristic;
+    private final Duration budget;
+
+    /**
+     * The outcome of a search.
+     *
+     * @param moves         the move codes of a shortest solution when {@code solved}, otherwise of the best
+     *                      partial path found, or {@code null} if no move was tried
+     * @param solved        whether {@code moves} reach the solved board
+     * @param lowerBound    proven lower bound on the solution length; equal to the length when solved
+     * @param nodesExpanded number of positions expanded
+     * @param elapsedNanos  time the search took
+     */
+    public record Result(int[] moves, boolean solved, int lowerBound, long nodesExpanded, long elapsedNanos) {
+        public Solution toSolution() {
+            return new Solution(moves, solved, nodesExpanded, elapsedNanos);
+        }
+    }
+
+    /**
+     * Creates a solver that runs until it finds a solution or is interrupted.
+     */
+    public IdaStarSolver() {
+        this(AStarSolver::heuristic, null);
+    }
+
+    /**
+     * Creates a solver whose {@link #solve(long)} gives up after {@code budget} with the best partial path.
+     */
+    public IdaStarSolver(Duration budget) {
+        this(AStarSolver::heuristic, budget);
+    }
+
+    /**
+     * @param heuristic lower bound on the number of moves needed to solve a packed position
+     * @param budget    time limit of {@link #solve(long)}, or {@code null} for none
+     */
+    public IdaStarSolver(LongToIntFunction heuristic, Duration budget) {
+        this.heuristic = heuristic;
+        this.budget = budget;
+    }
+
+    @Override
+    public Solution solve(long state) {
+        Thread thread = Thread.currentThread();
+        return search(state, budget, thread::isInterrupted).toSolution();
+    }
+
+    /**
+     * Searches for a shortest solution of {@code start} until one is found, {@code budget} has passed or
+     * {@code cancelled} returns {@code true}. Both are checked every thousand or so expanded positions.
+     *
+     * @param budget time limit, or {@code null} for none
+     */
+    public Result search(long start, Duration budget, BooleanSupplier cancelled) {
+        return new Search(budget, cancelled).run(start);
+    }
+
+    /**
+     * The state of one search: the current path, a move buffer per depth and the best partial path.
+     */
+    private final class Search {
+        private final long begin = System.nanoTime();
+        private final long deadline;
+        private final boolean bounded;
+        private final BooleanSupplier cancelled;
+        private int[] path = new int[64];
+        private int[][] buffers = new int[64][];
+        private int threshold;
+        private int solutionLength;
+        private boolean stopped;
+        private long expanded;
+        private int[] bestPath;
+        private int bestEstimate = Integer.MAX_VALUE;
+
+        Search(Duration budget, BooleanSupplier cancelled) {
+            this.bounded = budget != null;
+            this.deadline = bounded ? begin + budget.toNanos() : 0;
+            this.cancelled = cancelled;
+        }
+
+        Result run(long start) {
+            if (PackedState.isSolved(start)) {
+                return result(new int[0], true, 0);
+            }
+            int estimate = heuristic.applyAsInt(start);
+            threshold = estimate;
+            while (true) {
+                int next = expand(start, 0, estimate, -1);
+                if (next == FOUND) {
+                    return result(Arrays.copyOf(path, solutionLength), true, solutionLength);
+                }
+                if (stopped || next == STOPPED) {
+                    // a search that was not stopped and found nothing to raise the threshold to has no solution
+                    return result(bestPath, false, stopped ? threshold : Integer.MAX_VALUE);
+                }
+                threshold = next;
+            }
+        }
+
+        // Returns FOUND, or the smallest cost above the threshold among the abandoned paths
+        private int expand(long state, int depth, int estimate, int previous) {
+            int cost = depth + estimate;
+            if (cost > threshold) {
+                return cost;
+            }
+            if (PackedState.isSolved(state)) {
+                solutionLength = depth;
+                return FOUND;
+            }
+            if ((++expanded & DEADLINE_CHECK_MASK) == 0 && shouldStop()) {
+                stopped = true;
+                return STOPPED;
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                buffers = Arrays.copyOf(buffers, depth * 2);
+            }
+            int[] moves = buffers[depth];
+            if (moves == null) {
+                moves = buffers[depth] = new int[MoveGenerator.MAX_MOVES];
+            }
+            int undo = previous < 0 ? -1 : PackedState.moveCode(PackedState.moveTo(previous),
+                    PackedState.moveFrom(previous));
+            int count = MoveGenerator.generate(state, moves);
+            int next = STOPPED;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                if (move == undo) {
+                    continue;
+                }
+                long child = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+                int childEstimate = heuristic.applyAsInt(child);
+                path[depth] = move;
+                if (childEstimate < bestEstimate || (childEstimate == bestEstimate && depth + 1 < bestPath.length)) {
+                    bestEstimate = childEstimate;
+                    bestPath = Arrays.copyOf(path, depth + 1);
+                }
+                int result = expand(child, depth + 1, childEstimate, move);
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                if (stopped) {
+                    return STOPPED;
+                }
+                next = Math.min(next, result);
+            }
+            return next;
+        }
+
+        private boolean shouldStop() {
+            return (bounded && System.nanoTime() - deadline >= 0) || cancelled.getAsBoolean();
+        }
+
+        private Result result(int[] moves, boolean solved, int lowerBound) {
+            return new Result(moves, solved, lowerBound, expanded, System.nanoTime() - begin);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package solver;
+
+/**
+ * The {@code LayoutStateSpace} class packs the positions of a {@link BoardLayout} into a {@code long} so
+ * that {@link ExternalBreadthFirstSearch} can sweep it. The playable cells are numbered in grid order and
+ * each tile, taken in the order it appears in the goal, gets a fixed-width field holding the number of the
+ * cell it stands on. Tiles must be distinct and their fields must fit in 63 bits: the classic board takes
+ * 9 x 4 bits and the wide one 11 x 5, while the large one would need 14 x 5 and is rejected.
+ */
+public final class LayoutStateSpace implements StateSpace {
+    private final BoardLayout layout;
+    private final int[] cells;
+    private final long[] adjacent;
+    private final char[] tiles;
+    private final int bits;
+    private final long fieldMask;
+    private final long goal;
+
+    /**
+     * @throws IllegalArgumentException if the goal repeats a tile or its positions do not fit in a long
+     */
+    public LayoutStateSpace(BoardLayout layout) {
+        this.layout = layout;
+        long playable = layout.playableMask();
+        this.cells = new int[Long.bitCount(playable)];
+        long remaining = playable;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+        }
+        this.adjacent = new long[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            adjacent[i] = Long.compress(layout.neighbourMask(cells[i]) & playable, playable);
+        }
+        char[][] board = layout.goalBoard();
+        StringBuilder found = new StringBuilder();
+        for (int cell : cells) {
+            char value = board[layout.rowOf(cell)][layout.colOf(cell)];
+            if (value != BoardLayout.EMPTY) {
+                if (found.indexOf(String.valueOf(value)) >= 0) {
+                    throw new IllegalArgumentException("Tile " + value + " appears more than once");
+                }
+                found.append(value);
+            }
+        }
+        this.tiles = found.toString().toCharArray();
+        this.bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(cells.length - 1));
+        if (tiles.length * bits > 63) {
+            throw new IllegalArgumentException(tiles.length + " tiles on " + cells.length
+                    + " cells do not fit in a long");
+        }
+        this.fieldMask = (1L << bits) - 1;
+        this.goal = encode(board);
+    }
+
+    public BoardLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Packs a board of this layout.
+     *
+     * @throws IllegalArgumentException if the board does not hold each tile of the goal once
+     */
+    public long encode(char[][] board) {
+        long state = 0;
+        int placed = 0;
+        for (int i = 0; i < cells.length; i++) {
+            char value = board[layout.rowOf(cells[i])][layout.colOf(cells[i])];
+            for (int tile = 0; tile < tiles.length; tile++) {
+                if (tiles[tile] == value) {
+                    state |= (long) i << (tile * bits);
+                    placed++;
+                }
+            }
+        }
+        if (placed != tiles.length) {
+            throw new IllegalArgumentException("Board does not hold the tiles " + new String(tiles));
+        }
+        return state;
+    }
+
+    public char[][] decode(long state) {
+        char[][] board = layout.goalBoard();
+        for (int cell : cells) {
+            board[layout.rowOf(cell)][layout.colOf(cell)] = BoardLayout.EMPTY;
+        }
+        for (int tile = 0; tile < tiles.length; tile++) {
+            int cell = cells[(int) (state >>> (tile * bits) & fieldMask)];
+            board[layout.rowOf(cell)][layout.colOf(cell)] = tiles[tile];
+        }
+        return board;
+    }
+
+    @Override
+    public long goal() {
+        return goal;
+    }
+
+    @Override
+    public int maxSuccessors() {
+        return layout.maxMoves();
+    }
+
+    @Override
+    public int successors(long state, long[] buffer, int offset) {
+        long occupied = 0;
+        for (int tile = 0; tile < tiles.length; tile++) {
+            occupied |= 1L << (state >>> (tile * bits) & fieldMask);
+        }
+        int count = 0;
+        for (int tile = 0; tile < tiles.length; tile++) {
+            int shift = tile * bits;
+            long targets = adjacent[(int) (state >>> shift & fieldMask)] & ~occupied;
+            while (targets != 0) {
+                long to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                buffer[offset + count++] = state & ~(fieldMask << shift) | to << shift;
+            }
+        }
+        return count;
+    }
+}
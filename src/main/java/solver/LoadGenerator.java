@@ -0,0 +1,213 @@
+package solver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code LoadGenerator} class drives a {@link GameServer} with many concurrent sessions. Sessions are
+ * spread over a number of connections, each run by its own virtual thread. Every connection first opens
+ * its sessions and waits until all connections have done the same, so the requested number of sessions
+ * is live at once, then plays random legal moves round-robin over its sessions, one request in flight at
+ * a time, and records the round-trip time of every move.
+ */
+public class LoadGenerator {
+    private final String host;
+    private final int port;
+
+    /**
+     * The outcome of a run. Latencies are in nanoseconds.
+     */
+    public record Report(int sessions, int connections, long moves, long errors, Duration elapsed,
+                         long p50, long p99, long max) {
+        @Override
+        public String toString() {
+            return String.format("%d sessions over %d connections: %d moves, %d errors in %.1f s (%.0f moves/s), "
+                            + "latency p50 %d us, p99 %d us, max %d us",
+                    sessions, connections, moves, errors, elapsed.toNanos() / 1e9,
+                    moves / (elapsed.toNanos() / 1e9), p50 / 1000, p99 / 1000, max / 1000);
+        }
+    }
+
+    public LoadGenerator(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Opens {@code sessions} sessions over {@code connections} connections and plays {@code movesPerSession}
+     * moves in each.
+     */
+    public Report run(int sessions, int connections, int movesPerSession)
+            throws InterruptedException, ExecutionException {
+        connections = Math.min(connections, sessions);
+        CountDownLatch opened = new CountDownLatch(connections);
+        List<Future<long[]>> results = new ArrayList<>(connections);
+        long begin;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                int share = sessions / connections + (c < sessions % connections ? 1 : 0);
+                long seed = c;
+                results.add(executor.submit(() -> play(share, movesPerSession, seed, opened)));
+            }
+            opened.await();
+            begin = System.nanoTime();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - begin);
+        long[][] perConnection = new long[connections][];
+        int total = 0;
+        for (int c = 0; c < connections; c++) {
+            perConnection[c] = results.get(c).get();
+            total += perConnection[c].length;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        long errors = 0;
+        for (long[] part : perConnection) {
+            for (long latency : part) {
+                if (latency < 0) {
+                    errors++;
+                } else {
+                    latencies[offset++] = latency;
+                }
+            }
+        }
+        latencies = Arrays.copyOf(latencies, offset);
+        Arrays.sort(latencies);
+        return new Report(sessions, connections, offset, errors, elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1]);
+    }
+
+    // Returns the latency of every move, negated for moves the server did not accept
+    private long[] play(int sessionCount, int movesPerSession, long seed, CountDownLatch opened) throws IOException {
+        boolean counted = false;
+        try (Socket socket = new Socket(host, port);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer writer = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            long[] ids = new long[sessionCount];
+            long[] states = new long[sessionCount];
+            try {
+                for (int s = 0; s < sessionCount; s++) {
+                    String response = request(reader, writer, "NEW");
+                    if (!response.startsWith("OK ")) {
+                        throw new IOException("Failed to open a session: " + response);
+                    }
+                    ids[s] = Long.parseLong(response.substring(3));
+                    states[s] = PackedState.START;
+                }
+            } finally {
+                opened.countDown();
+                counted = true;
+            }
+            opened.await();
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            long[] latencies = new long[sessionCount * movesPerSession];
+            int recorded = 0;
+            for (int round = 0; round < movesPerSession; round++) {
+                for (int s = 0; s < sessionCount; s++) {
+                    int move = moves[random.nextInt(MoveGenerator.generate(states[s], moves))];
+                    int from = PackedState.moveFrom(move);
+                    int to = PackedState.moveTo(move);
+                    long begin = System.nanoTime();
+                    String response = request(reader, writer, "MOVE " + ids[s]
+                            + " " + PackedState.rowOf(from) + " " + PackedState.colOf(from)
+                            + " " + PackedState.rowOf(to) + " " + PackedState.colOf(to));
+                    long latency = System.nanoTime() - begin;
+                    if (response.startsWith("OK")) {
+                        states[s] = PackedState.applyMove(states[s], from, to);
+                        latencies[recorded++] = latency;
+                    } else {
+                        latencies[recorded++] = -latency;
+                    }
+                }
+            }
+            for (long id : ids) {
+                request(reader, writer, "CLOSE " + id);
+            }
+            return latencies;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } finally {
+            // a connection that failed before opening its sessions must not keep the others waiting
+            if (!counted) {
+                opened.countDown();
+            }
+        }
+    }
+
+    private static String request(BufferedReader reader, Writer writer, String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+        String response = reader.readLine();
+        if (response == null) {
+            throw new UncheckedIOException(new IOException("Server closed the connection"));
+        }
+        return response;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    /**
+     * Runs a load test and prints the report. Without {@code --port} an embedded server is started.
+     * Usage: {@code [--host h] [--port n] [--sessions n] [--connections n] [--moves n]}.
+     */
+    public static void main(String[] args) throws Exception {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        int port = -1;
+        int sessions = 10_000;
+        int connections = 1_000;
+        int moves = 100;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host" -> host = args[++i];
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--sessions" -> sessions = Integer.parseInt(args[++i]);
+                case "--connections" -> connections = Integer.parseInt(args[++i]);
+                case "--moves" -> moves = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        GameServer embedded = null;
+        if (port < 0) {
+            embedded = new GameServer(new SessionStore(sessions, Duration.ofMinutes(10)), 0);
+            embedded.start();
+            port = embedded.getPort();
+        }
+        try {
+            System.out.println(new LoadGenerator(host, port).run(sessions, connections, moves));
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * The {@code LongIntHashMap} class is an open-addressing hash map from {@code long} keys to {@code int}
+ * values with linear probing. It is used as the visited set of the solvers, keyed on packed states, so
+ * no boxing or per-entry objects are created during a search. Keys must not be negative, which packed
+ * states never are.
+ */
+public final class LongIntHashMap {
+    /** The value returned by {@link #get(long)} for absent keys. */
+    public static final int NO_VALUE = -1;
+
+    private static final long FREE = -1L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(1024);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int get(long key) {
+        int slot = slotOf(key);
+        while (true) {
+            long current = keys[slot];
+            if (current == key) {
+                return values[slot];
+            }
+            if (current == FREE) {
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}, replacing any previous value.
+     */
+    public void put(long key, int value) {
+        int slot = findSlot(key);
+        if (keys[slot] == FREE) {
+            insert(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Adds the mapping only if {@code key} is absent.
+     *
+     * @return {@code true} if the key was added, {@code false} if it was already present
+     */
+    public boolean putIfAbsent(long key, int value) {
+        int slot = findSlot(key);
+        if (keys[slot] != FREE) {
+            return false;
+        }
+        insert(slot, key, value);
+        return true;
+    }
+
+    /**
+     * Removes {@code key}. The entries after it in its probe run are shifted back, so lookups never need
+     * tombstones.
+     *
+     * @return the value that was mapped to {@code key}, or {@link #NO_VALUE}
+     */
+    public int remove(long key) {
+        if (key < 0) {
+            return NO_VALUE;
+        }
+        int slot = slotOf(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == FREE) {
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int value = values[slot];
+        int hole = slot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long current = keys[slot];
+            if (current == FREE) {
+                break;
+            }
+            int home = slotOf(current);
+            // move the entry into the hole unless its home lies cyclically in (hole, slot]
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = current;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = FREE;
+        size--;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    private int findSlot(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        int slot = slotOf(key);
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, long key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slotOf(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 16) / LOAD_FACTOR);
+        long capacity = Long.highestOneBit(needed - 1) << 1;
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        return (int) capacity;
+    }
+}
@@ -0,0 +1,104 @@
+package solver;
+
+/**
+ * The {@code MoveGenerator} class lists the legal moves of a packed position without allocating.
+ * Every playable cell has a precomputed bitmask of its neighbours; the moves into an empty cell are the
+ * occupied cells in that mask, so generation only visits the four empty cells instead of every
+ * (from, to) pair of the board.
+ */
+public final class MoveGenerator {
+    /** The largest number of moves any position can have: four empty cells with at most three neighbours. */
+    public static final int MAX_MOVES = 12;
+
+    private static final int ALL_CELLS = (1 << PackedState.CELLS) - 1;
+    private static final long LOW_NIBBLE_BITS = 0x1111111111111L;
+    private static final int[] ADJACENT = new int[PackedState.CELLS];
+
+    static {
+        for (int cell = 0; cell < PackedState.CELLS; cell++) {
+            for (int neighbour : PackedState.neighbours(cell)) {
+                ADJACENT[cell] |= 1 << neighbour;
+            }
+        }
+    }
+
+    /**
+     * Receives the moves of a position one at a time.
+     */
+    @FunctionalInterface
+    public interface MoveConsumer {
+        void accept(int from, int to);
+    }
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Returns a bitmask with bit {@code i} set when cell {@code i} holds a tile.
+     */
+    public static int occupiedMask(long state) {
+        long nonZero = state | (state >>> 1);
+        nonZero |= nonZero >>> 2;
+        return (int) Long.compress(nonZero, LOW_NIBBLE_BITS);
+    }
+
+    /**
+     * Returns a bitmask with bit {@code i} set when cell {@code i} is empty.
+     */
+    public static int emptyMask(long state) {
+        return ~occupiedMask(state) & ALL_CELLS;
+    }
+
+    /**
+     * Returns the bitmask of cells adjacent to {@code cell}.
+     */
+    public static int adjacentMask(int cell) {
+        return ADJACENT[cell];
+    }
+
+    public static boolean isLegalMove(long state, int from, int to) {
+        return (ADJACENT[to] & (1 << from)) != 0
+                && !PackedState.isEmpty(state, from) && PackedState.isEmpty(state, to);
+    }
+
+    /**
+     * Writes the codes of all legal moves into {@code buffer}, which must hold at least {@link #MAX_MOVES}
+     * entries.
+     *
+     * @return the number of moves written
+     */
+    public static int generate(long state, int[] buffer) {
+        int occupied = occupiedMask(state);
+        int empty = ~occupied & ALL_CELLS;
+        int count = 0;
+        while (empty != 0) {
+            int to = Integer.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            int sources = ADJACENT[to] & occupied;
+            while (sources != 0) {
+                int from = Integer.numberOfTrailingZeros(sources);
+                sources &= sources - 1;
+                buffer[count++] = PackedState.moveCode(from, to);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Passes every legal move of {@code state} to {@code consumer}.
+     */
+    public static void forEach(long state, MoveConsumer consumer) {
+        int occupied = occupiedMask(state);
+        int empty = ~occupied & ALL_CELLS;
+        while (empty != 0) {
+            int to = Integer.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            int sources = ADJACENT[to] & occupied;
+            while (sources != 0) {
+                int from = Integer.numberOfTrailingZeros(sources);
+                sources &= sources - 1;
+                consumer.accept(from, to);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * The {@code PackedState} class encodes the position of a {@link Game} on {@link BoardLayout#CLASSIC} into
+ * a single {@code long}. Only the 13 playable cells of the layout are stored, numbered row by row from the
+ * bottom: the ten cells of the bottom row followed by the three top pockets at columns 3, 5 and 7. Each
+ * cell takes four bits holding the tile number (1-9) or 0 when the cell is empty, so a whole position fits
+ * in the low 52 bits and can be copied, hashed and compared without allocating. The cell tables are derived
+ * from the layout when the class is loaded.
+ *
+ * <p>Moves are coded by {@link #moveCode(int, int)} over these cell numbers. Solutions, replays, sessions
+ * and the move generator all use this code; it differs from the grid code of
+ * {@link BoardLayout#moveCode(int, int)} that {@link Game#getLegalGridMoves(int[])} returns.
+ */
+public final class PackedState {
+    private static final BoardLayout LAYOUT = BoardLayout.CLASSIC;
+
+    /** Number of playable cells on the board. */
+    public static final int CELLS = Long.bitCount(LAYOUT.playableMask());
+    /** Number of numbered tiles on the board. */
+    public static final int TILES = 9;
+
+    private static final int BITS = 4;
+    private static final long CELL_MASK = 0xFL;
+
+    private static final int[] ROW = new int[CELLS];
+    private static final int[] COL = new int[CELLS];
+    private static final int[][] CELL_AT = new int[LAYOUT.rows()][LAYOUT.cols()];
+    private static final int[] GOAL_CELL = new int[TILES + 1];
+    private static final int[][] NEIGHBOURS = new int[CELLS][];
+    private static final int[][] DISTANCE = new int[CELLS][CELLS];
+
+    static {
+        for (int[] row : CELL_AT) {
+            Arrays.fill(row, -1);
+        }
+        int cells = 0;
+        for (int row = LAYOUT.rows() - 1; row >= 0; row--) {
+            for (int col = 0; col < LAYOUT.cols(); col++) {
+                if (!LAYOUT.isBlocked(row, col)) {
+                    ROW[cells] = row;
+                    COL[cells] = col;
+                    CELL_AT[row][col] = cells++;
+                }
+            }
+        }
+        char[][] goal = LAYOUT.goalBoard();
+        for (int cell = 0; cell < CELLS; cell++) {
+            char value = goal[ROW[cell]][COL[cell]];
+            if (value != BoardLayout.EMPTY) {
+                GOAL_CELL[value - '0'] = cell;
+            }
+            int[] grid = LAYOUT.neighbours(LAYOUT.index(ROW[cell], COL[cell]));
+            int[] found = new int[grid.length];
+            int count = 0;
+            for (int neighbour : grid) {
+                int other = CELL_AT[LAYOUT.rowOf(neighbour)][LAYOUT.colOf(neighbour)];
+                if (other >= 0) {
+                    found[count++] = other;
+                }
+            }
+            NEIGHBOURS[cell] = Arrays.copyOf(found, count);
+        }
+        for (int[] row : DISTANCE) {
+            Arrays.fill(row, CELLS);
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            DISTANCE[cell][cell] = 0;
+            for (int neighbour : NEIGHBOURS[cell]) {
+                DISTANCE[cell][neighbour] = 1;
+            }
+        }
+        for (int via = 0; via < CELLS; via++) {
+            for (int from = 0; from < CELLS; from++) {
+                for (int to = 0; to < CELLS; to++) {
+                    DISTANCE[from][to] = Math.min(DISTANCE[from][to], DISTANCE[from][via] + DISTANCE[via][to]);
+                }
+            }
+        }
+    }
+
+    /** The position checked by {@link Game#isSolved()}: tiles 1-9 on the bottom row, everything else empty. */
+    public static final long SOLVED = encode(LAYOUT.goalBoard());
+    /** The position set up by {@link Game#resetGame()}. */
+    public static final long START = encode(new Game());
+
+    private PackedState() {
+    }
+
+    /**
+     * Returns the cell index of a board coordinate, or -1 when the coordinate is off the board or blocked.
+     */
+    public static int cellOf(int row, int col) {
+        if (row < 0 || row >= LAYOUT.rows() || col < 0 || col >= LAYOUT.cols()) {
+            return -1;
+        }
+        return CELL_AT[row][col];
+    }
+
+    public static int rowOf(int cell) {
+        return ROW[cell];
+    }
+
+    public static int colOf(int cell) {
+        return COL[cell];
+    }
+
+    /**
+     * Returns the cells adjacent to {@code cell}. The returned array is shared and must not be modified.
+     */
+    static int[] neighbours(int cell) {
+        return NEIGHBOURS[cell];
+    }
+
+    /**
+     * Returns the number of single-step moves a tile needs to travel between two cells on an empty board.
+     */
+    public static int distance(int from, int to) {
+        return DISTANCE[from][to];
+    }
+
+    /**
+     * Returns the cell tile {@code tile} occupies in {@link #SOLVED}.
+     */
+    public static int goalCell(int tile) {
+        return GOAL_CELL[tile];
+    }
+
+    /**
+     * Encodes a move between two cells into a single byte-sized code. This is not the grid code of
+     * {@link BoardLayout#moveCode(int, int)}.
+     */
+    public static int moveCode(int from, int to) {
+        return (from << BITS) | to;
+    }
+
+    public static int moveFrom(int code) {
+        return code >>> BITS;
+    }
+
+    public static int moveTo(int code) {
+        return code & (int) CELL_MASK;
+    }
+
+    /**
+     * Returns the tile number (1-9) in the given cell, or 0 when the cell is empty.
+     */
+    public static int tileAt(long state, int cell) {
+        return (int) ((state >>> (cell * BITS)) & CELL_MASK);
+    }
+
+    public static long withTile(long state, int cell, int tile) {
+        int shift = cell * BITS;
+        return (state & ~(CELL_MASK << shift)) | ((long) tile << shift);
+    }
+
+    public static boolean isEmpty(long state, int cell) {
+        return tileAt(state, cell) == 0;
+    }
+
+    /**
+     * Moves the tile in {@code from} into {@code to}. The caller is responsible for the move being legal,
+     * i.e. the cells are adjacent, {@code from} holds a tile and {@code to} is empty.
+     */
+    public static long applyMove(long state, int from, int to) {
+        int tile = tileAt(state, from);
+        return (state & ~(CELL_MASK << (from * BITS))) | ((long) tile << (to * BITS));
+    }
+
+    public static boolean isSolved(long state) {
+        return state == SOLVED;
+    }
+
+    /**
+     * Packs the board of a game. Blocked cells are ignored.
+     *
+     * @throws IllegalArgumentException if the game is not on {@link BoardLayout#CLASSIC} or a playable cell
+     *                                  holds anything other than a blank or a digit 1-9
+     */
+    public static long encode(Game game) {
+        if (game.getLayout() != BoardLayout.CLASSIC) {
+            throw new IllegalArgumentException("Only games on the classic layout can be packed");
+        }
+        return encode(game.getBoard());
+    }
+
+    public static long encode(char[][] board) {
+        long state = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            char value = board[ROW[cell]][COL[cell]];
+            if (value == ' ') {
+                continue;
+            }
+            if (value < '1' || value > '9') {
+                throw new IllegalArgumentException("Unexpected value '" + value + "' at "
+                        + ROW[cell] + "," + COL[cell]);
+            }
+            state = withTile(state, cell, value - '0');
+        }
+        return state;
+    }
+
+    /**
+     * Unpacks a state into a fresh {@link Game} with a move counter of zero.
+     */
+    public static Game decode(long state) {
+        return decode(state, 0);
+    }
+
+    public static Game decode(long state, int moves) {
+        char[][] board = toBoard(state);
+        int empty = firstEmptyCell(state);
+        int emptyRow = empty < 0 ? 1 : ROW[empty];
+        int emptyCol = empty < 0 ? 0 : COL[empty];
+        return new Game(board, emptyRow, emptyCol, moves);
+    }
+
+    public static char[][] toBoard(long state) {
+        char[][] board = new char[LAYOUT.rows()][LAYOUT.cols()];
+        for (char[] row : board) {
+            Arrays.fill(row, BoardLayout.BLOCKED);
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int tile = tileAt(state, cell);
+            board[ROW[cell]][COL[cell]] = tile == 0 ? ' ' : (char) ('0' + tile);
+        }
+        return board;
+    }
+
+    /**
+     * Returns a one-line representation of the state, bottom row first and then the three pockets,
+     * for example {@code " 234567891|   "}.
+     */
+    public static String toString(long state) {
+        StringBuilder sb = new StringBuilder(CELLS + 1);
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cell == LAYOUT.cols()) {
+                sb.append('|');
+            }
+            int tile = tileAt(state, cell);
+            sb.append(tile == 0 ? ' ' : (char) ('0' + tile));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats a state as the two board rows joined by {@code '/'}, top row first, the way
+     * {@link Game#getBoard()} lays them out, for example {@code "XXX X X XX/ 234567891"}.
+     */
+    public static String toBoardString(long state) {
+        char[][] board = toBoard(state);
+        return new String(board[0]) + '/' + new String(board[1]);
+    }
+
+    /**
+     * Parses the format written by {@link #toBoardString(long)}.
+     *
+     * @throws IllegalArgumentException if the line is not two rows of ten cells holding each tile once
+     */
+    public static long parse(String line) {
+        int separator = line.indexOf('/');
+        if (separator != 10 || line.length() != 21) {
+            throw new IllegalArgumentException("Expected two rows of 10 cells separated by '/': \"" + line + "\"");
+        }
+        char[][] board = {line.substring(0, 10).toCharArray(), line.substring(11).toCharArray()};
+        long state = encode(board);
+        int seen = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int tile = tileAt(state, cell);
+            if (tile != 0) {
+                if ((seen & (1 << tile)) != 0) {
+                    throw new IllegalArgumentException("Tile " + tile + " appears twice: \"" + line + "\"");
+                }
+                seen |= 1 << tile;
+            }
+        }
+        if (Integer.bitCount(seen) != TILES) {
+            throw new IllegalArgumentException("Expected tiles 1-9 exactly once: \"" + line + "\"");
+        }
+        return state;
+    }
+
+    private static int firstEmptyCell(long state) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (tileAt(state, cell) == 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,166 @@
+package solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code ParallelBreadthFirstSearch} class explores the positions reachable from a root one depth level
+ * at a time on a {@link ForkJoinPool}. Each level's frontier is cut into fixed chunks that are expanded in
+ * parallel; visited positions are marked in a shared {@link AtomicBitSet} indexed by {@link StateRank}, and
+ * every chunk collects the positions it discovers in its own buffer, so no lock is taken. The buffers are
+ * concatenated into the next frontier once the level is done.
+ *
+ * <p>How much the parallelism helps depends on the cores available; {@link #main} measures it.
+ */
+public class ParallelBreadthFirstSearch {
+    private static final Logger logger = LogManager.getLogger(ParallelBreadthFirstSearch.class);
+    private static final int CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+
+    public ParallelBreadthFirstSearch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelBreadthFirstSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Explores every position reachable from {@code root}.
+     *
+     * @return the number of positions at each depth, index 0 being the root
+     */
+    public long[] explore(long root) {
+        return explore(root, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Explores the positions reachable from {@code root} in at most {@code maxDepth} moves.
+     *
+     * @return the number of positions at each depth, index 0 being the root
+     */
+    public long[] explore(long root, int maxDepth) {
+        AtomicBitSet visited = new AtomicBitSet(StateRank.COUNT);
+        visited.set(StateRank.rank(root));
+        long[] frontier = {root};
+        long[] counts = new long[64];
+        counts[0] = 1;
+        int depth = 0;
+        while (depth < maxDepth) {
+            long begin = System.nanoTime();
+            long[][] found = new long[(frontier.length + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+            int[] sizes = new int[found.length];
+            pool.invoke(new ExpandChunks(frontier, visited, found, sizes, 0, found.length));
+            frontier = concat(found, sizes);
+            if (frontier.length == 0) {
+                break;
+            }
+            depth++;
+            if (depth == counts.length) {
+                counts = Arrays.copyOf(counts, depth * 2);
+            }
+            counts[depth] = frontier.length;
+            logger.debug("Depth {}: {} positions in {} ms", depth, frontier.length,
+                    (System.nanoTime() - begin) / 1_000_000);
+        }
+        return Arrays.copyOf(counts, depth + 1);
+    }
+
+    private static long[] concat(long[][] parts, int[] sizes) {
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        long[] result = new long[total];
+        int offset = 0;
+        for (int i = 0; i < parts.length; i++) {
+            System.arraycopy(parts[i], 0, result, offset, sizes[i]);
+            offset += sizes[i];
+        }
+        return result;
+    }
+
+    /**
+     * Splits a range of chunk indices in half until a single chunk remains, then expands it.
+     */
+    @SuppressWarnings("serial") // never serialized; RecursiveAction is Serializable only by inheritance
+    private static final class ExpandChunks extends RecursiveAction {
+        private final long[] frontier;
+        private final AtomicBitSet visited;
+        private final long[][] found;
+        private final int[] sizes;
+        private final int from;
+        private final int to;
+
+        ExpandChunks(long[] frontier, AtomicBitSet visited, long[][] found, int[] sizes, int from, int to) {
+            this.frontier = frontier;
+            this.visited = visited;
+            this.found = found;
+            this.sizes = sizes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ExpandChunks(frontier, visited, found, sizes, from, middle),
+                        new ExpandChunks(frontier, visited, found, sizes, middle, to));
+                return;
+            }
+            if (from == to) {
+                return;
+            }
+            int start = from * CHUNK_SIZE;
+            int end = Math.min(start + CHUNK_SIZE, frontier.length);
+            long[] buffer = new long[(end - start) * 2];
+            int size = 0;
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            for (int i = start; i < end; i++) {
+                long state = frontier[i];
+                int count = MoveGenerator.generate(state, moves);
+                for (int m = 0; m < count; m++) {
+                    long next = PackedState.applyMove(state, PackedState.moveFrom(moves[m]), PackedState.moveTo(moves[m]));
+                    if (visited.set(StateRank.rank(next))) {
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, size * 2);
+                        }
+                        buffer[size++] = next;
+                    }
+                }
+            }
+            found[from] = buffer;
+            sizes[from] = size;
+        }
+    }
+
+    /**
+     * Benchmark harness: explores the whole state space from the solved board once per requested
+     * parallelism (default: 1 and all available processors) and prints the time and the speedup.
+     */
+    public static void main(String[] args) {
+        int[] parallelisms = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, Runtime.getRuntime().availableProcessors()};
+        double baseline = 0;
+        for (int parallelism : parallelisms) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            long begin = System.nanoTime();
+            long[] counts = new ParallelBreadthFirstSearch(pool).explore(PackedState.SOLVED);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            pool.shutdown();
+            long total = Arrays.stream(counts).sum();
+            if (baseline == 0) {
+                baseline = seconds;
+            }
+            System.out.printf("parallelism %d: %d positions, max depth %d, %.1f s, %.1f M positions/s, speedup %.2fx%n",
+                    parallelism, total, counts.length - 1, seconds, total / seconds / 1e6, baseline / seconds);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * The {@code PuzzleGenerator} class produces random positions at a requested optimal distance from the
+ * solved board, checked against a {@link DistanceOracle} so every puzzle has exactly the advertised
+ * difficulty. The same seed always yields the same sequence of puzzles.
+ *
+ * <p>Shallow targets are reached by climbing from the goal one distance layer per step, each time moving
+ * to a random neighbour that lies exactly one move further away; a branch without a deeper neighbour is
+ * backed out of depth-first until an expansion budget runs out. Deep layers are hard to climb into, so
+ * when the climb fails the generator draws uniformly random positions instead and walks the first one at
+ * or beyond the target down to it, which always succeeds because every unsolved position has a neighbour
+ * one move closer. That fallback needs cheap lookups and is meant for a
+ * {@link DistanceTable}; a few positions in the deepest layers are too rare to sample at all.
+ */
+public class PuzzleGenerator {
+    private static final int EXPANSIONS_PER_MOVE = 256;
+    private static final int MAX_SAMPLES = 1 << 22;
+
+    private final DistanceOracle oracle;
+    private final SplittableRandom random;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final long[] closer = new long[MoveGenerator.MAX_MOVES];
+    private long[][] candidates = new long[0][];
+    private int[] remaining = new int[0];
+
+    public PuzzleGenerator(DistanceOracle oracle, long seed) {
+        this.oracle = oracle;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns a position exactly {@code distance} moves from solved.
+     *
+     * @throws IllegalArgumentException if {@code distance} is negative
+     * @throws IllegalStateException if no such position was found, e.g. beyond the deepest position
+     */
+    public long generate(int distance) {
+        return generate(distance, distance);
+    }
+
+    /**
+     * Returns a position whose optimal distance lies in {@code [minDistance, maxDistance]}; the target
+     * distance is drawn uniformly from the band.
+     */
+    public long generate(int minDistance, int maxDistance) {
+        if (minDistance < 0 || maxDistance < minDistance) {
+            throw new IllegalArgumentException("Invalid distance band [" + minDistance + ", " + maxDistance + "]");
+        }
+        int target = minDistance + random.nextInt(maxDistance - minDistance + 1);
+        long climbed = climb(target);
+        if (climbed >= 0) {
+            return climbed;
+        }
+        for (int sample = 0; sample < MAX_SAMPLES; sample++) {
+            long state = StateRank.unrank(random.nextInt(StateRank.COUNT));
+            int distance = oracle.distance(state);
+            if (distance >= target) {
+                return descend(state, distance, target);
+            }
+        }
+        throw new IllegalStateException("No position found at distance " + target);
+    }
+
+    public Game generateGame(int distance) {
+        return PackedState.decode(generate(distance));
+    }
+
+    // Depth-first climb in random order; returns -1 once the expansion budget runs out
+    private long climb(int target) {
+        if (target == 0) {
+            return PackedState.SOLVED;
+        }
+        if (candidates.length < target) {
+            candidates = new long[target][MoveGenerator.MAX_MOVES];
+            remaining = new int[target];
+        }
+        remaining[0] = neighboursAt(PackedState.SOLVED, 1, candidates[0]);
+        int depth = 0;
+        for (int budget = EXPANSIONS_PER_MOVE * target; budget > 0 && depth >= 0; budget--) {
+            if (remaining[depth] == 0) {
+                depth--;
+                continue;
+            }
+            long[] choices = candidates[depth];
+            int pick = random.nextInt(remaining[depth]);
+            long state = choices[pick];
+            choices[pick] = choices[--remaining[depth]];
+            if (depth + 1 == target) {
+                return state;
+            }
+            depth++;
+            remaining[depth] = neighboursAt(state, depth + 1, candidates[depth]);
+        }
+        return -1;
+    }
+
+    // Walks down from a position at the given distance, one random closer neighbour at a time
+    private long descend(long state, int distance, int target) {
+        for (; distance > target; distance--) {
+            int count = neighboursAt(state, distance - 1, closer);
+            state = closer[random.nextInt(count)];
+        }
+        return state;
+    }
+
+    // Collects the neighbours of a position that lie at the given distance
+    private int neighboursAt(long state, int distance, long[] found) {
+        int count = MoveGenerator.generate(state, moves);
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            long next = PackedState.applyMove(state, PackedState.moveFrom(moves[i]), PackedState.moveTo(moves[i]));
+            if (oracle.distance(next) == distance) {
+                found[size++] = next;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Prints puzzles in a distance band, one board per line in the format {@link BatchSolver} reads.
+     * Usage: {@code [--seed n] [--count n] [--table file] min[-max]}; the seed defaults to today's date, so
+     * everyone gets the same daily puzzles.
+     */
+    public static void main(String[] args) throws IOException {
+        long seed = LocalDate.now().toEpochDay();
+        int count = 1;
+        Path table = Path.of(DistanceTable.DEFAULT_FILE);
+        int minDistance = 30;
+        int maxDistance = 30;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--count" -> count = Integer.parseInt(args[++i]);
+                case "--table" -> table = Path.of(args[++i]);
+                default -> {
+                    String[] band = args[i].split("-", 2);
+                    minDistance = Integer.parseInt(band[0]);
+                    maxDistance = band.length > 1 ? Integer.parseInt(band[1]) : minDistance;
+                }
+            }
+        }
+        PuzzleGenerator generator = new PuzzleGenerator(DistanceTable.open(table), seed);
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            out.append(PackedState.toBoardString(generator.generate(minDistance, maxDistance))).append('\n');
+        }
+        System.out.print(out);
+    }
+}
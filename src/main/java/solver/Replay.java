@@ -0,0 +1,198 @@
+package solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The {@code Replay} class records what was played in a game: the start position and every move as one
+ * byte, the {@link PackedState#moveCode(int, int) code} of its cell pair. A 75-move game takes 91 bytes.
+ * {@link #verify()} runs the moves through the rules on the packed position, which costs a bitmask test
+ * and a nibble swap per move, so replays can be audited in bulk at tens of millions of moves per second.
+ *
+ * <p>Binary layout, as written by {@link #toBytes()}: a 16-byte big-endian header (magic, number of moves,
+ * packed start position) followed by one byte per move.
+ */
+public final class Replay {
+    static final int MAGIC = 0x52504C31; // "RPL1"
+    static final int HEADER_SIZE = 16;
+
+    private final long start;
+    private final byte[] moves;
+
+    /**
+     * The outcome of running a replay.
+     *
+     * @param legalMoves  number of moves applied before the first illegal one, or all of them
+     * @param firstIllegal index of the first illegal move, or -1 if every move was legal
+     * @param finalState  position after the legal moves
+     * @param solved      whether every move was legal and the final position is solved
+     */
+    public record Verification(int legalMoves, int firstIllegal, long finalState, boolean solved) {
+        /**
+         * Returns {@code true} if the replay is legal, ends solved and has exactly {@code claimedSteps} moves.
+         */
+        public boolean confirms(int claimedSteps) {
+            return solved && legalMoves == claimedSteps;
+        }
+    }
+
+    public Replay(long start, byte[] moves) {
+        this.start = start;
+        this.moves = moves.clone();
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public int length() {
+        return moves.length;
+    }
+
+    /**
+     * Returns the code of move {@code index}, as built by {@link PackedState#moveCode(int, int)}.
+     */
+    public int moveCode(int index) {
+        return moves[index] & 0xFF;
+    }
+
+    /**
+     * Runs every move from the start position, stopping at the first illegal one.
+     */
+    public Verification verify() {
+        return verify(start, moves, 0, moves.length);
+    }
+
+    /**
+     * Runs {@code length} move codes from {@code offset} on {@code state} without allocating anything
+     * but the result.
+     */
+    public static Verification verify(long state, byte[] moves, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            int code = moves[offset + i] & 0xFF;
+            int from = PackedState.moveFrom(code);
+            int to = PackedState.moveTo(code);
+            if (from >= PackedState.CELLS || to >= PackedState.CELLS || !MoveGenerator.isLegalMove(state, from, to)) {
+                return new Verification(i, i, state, false);
+            }
+            state = PackedState.applyMove(state, from, to);
+        }
+        return new Verification(length, -1, state, PackedState.isSolved(state));
+    }
+
+    /**
+     * Returns the position after the first {@code count} moves, for stepping through a game. Moves are
+     * applied as recorded; use {@link #verify()} first for replays of unknown origin.
+     */
+    public long stateAfter(int count) {
+        long state = start;
+        for (int i = 0; i < count; i++) {
+            int code = moves[i] & 0xFF;
+            state = PackedState.applyMove(state, PackedState.moveFrom(code), PackedState.moveTo(code));
+        }
+        return state;
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(HEADER_SIZE + moves.length)
+                .putInt(MAGIC).putInt(moves.length).putLong(start).put(moves)
+                .array();
+    }
+
+    /**
+     * Decodes the format written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a replay
+     */
+    public static Replay fromBytes(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Replay too short: " + bytes.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a replay");
+        }
+        int count = buffer.getInt();
+        if (count != bytes.length - HEADER_SIZE) {
+            throw new IllegalArgumentException("Replay declares " + count + " moves but holds "
+                    + (bytes.length - HEADER_SIZE));
+        }
+        long start = buffer.getLong();
+        return new Replay(start, Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length));
+    }
+
+    public void write(Path file) throws IOException {
+        Files.write(file, toBytes());
+    }
+
+    public static Replay read(Path file) throws IOException {
+        try {
+            return fromBytes(Files.readAllBytes(file));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + ": " + file, e);
+        }
+    }
+
+    /**
+     * Collects the moves of a game as it is played.
+     */
+    public static final class Recorder {
+        private long start;
+        private byte[] moves = new byte[128];
+        private int size;
+
+        public Recorder(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Forgets the recorded moves and starts over from {@code start}.
+         */
+        public void reset(long start) {
+            this.start = start;
+            size = 0;
+        }
+
+        /**
+         * Records a move between two board coordinates.
+         *
+         * @throws IllegalArgumentException if either coordinate is not a playable cell
+         */
+        public void add(int fromRow, int fromCol, int toRow, int toCol) {
+            int from = PackedState.cellOf(fromRow, fromCol);
+            int to = PackedState.cellOf(toRow, toCol);
+            if (from < 0 || to < 0) {
+                throw new IllegalArgumentException("Not a move between playable cells: " + fromRow + "," + fromCol
+                        + " -> " + toRow + "," + toCol);
+            }
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+            }
+            moves[size++] = (byte) PackedState.moveCode(from, to);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Replay toReplay() {
+            return new Replay(start, Arrays.copyOf(moves, size));
+        }
+    }
+
+    /**
+     * Verifies replay files and prints one line per file: the number of legal moves and whether the game
+     * ends solved, or the index of the first illegal move.
+     */
+    public static void main(String[] args) throws IOException {
+        for (String name : args) {
+            Verification result = read(Path.of(name)).verify();
+            System.out.println(name + "\t" + (result.firstIllegal() >= 0
+                    ? "ILLEGAL at move " + result.firstIllegal()
+                    : result.legalMoves() + (result.solved() ? "\tSOLVED" : "\tNOT SOLVED")));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * The {@code SearchNodes} class stores the nodes generated by a search in parallel primitive arrays:
+ * the packed state, the index of the parent node, the move code that led to it and its depth.
+ * Solutions are rebuilt by following the parent indices back to the root.
+ */
+final class SearchNodes {
+    private long[] states;
+    private int[] parents;
+    private byte[] moves;
+    private int[] depths;
+    private int size;
+
+    SearchNodes() {
+        this(1024);
+    }
+
+    SearchNodes(int capacity) {
+        states = new long[capacity];
+        parents = new int[capacity];
+        moves = new byte[capacity];
+        depths = new int[capacity];
+    }
+
+    /**
+     * Appends a node and returns its index.
+     */
+    int add(long state, int parent, int moveCode, int depth) {
+        if (size == states.length) {
+            int capacity = size + (size >> 1);
+            states = Arrays.copyOf(states, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            moves = Arrays.copyOf(moves, capacity);
+            depths = Arrays.copyOf(depths, capacity);
+        }
+        states[size] = state;
+        parents[size] = parent;
+        moves[size] = (byte) moveCode;
+        depths[size] = depth;
+        return size++;
+    }
+
+    long state(int node) {
+        return states[node];
+    }
+
+    int parent(int node) {
+        return parents[node];
+    }
+
+    int depth(int node) {
+        return depths[node];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the move codes leading from the root to {@code node}.
+     */
+    int[] path(int node) {
+        int[] path = new int[depths[node]];
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = moves[node] & 0xFF;
+            node = parents[node];
+        }
+        return path;
+    }
+}
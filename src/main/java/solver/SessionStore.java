@@ -0,0 +1,253 @@
+package solver;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@code SessionStore} class holds the games of a {@link GameServer} in flat arrays instead of one
+ * {@link Game} object each: a session is a {@link PackedState} position, a move counter and the time it was
+ * last used, about 24 bytes. Slots are recycled through a free list, and every session id carries the
+ * slot's generation, so an id kept by a client after its session was closed or evicted can never reach
+ * the slot's next occupant.
+ *
+ * <p>Each slot is guarded by one of a fixed set of lock stripes, so sessions used by different connections
+ * do not contend. {@link #evictIdle()} frees every session that has not been touched for the idle timeout;
+ * {@link GameServer} calls it periodically.
+ */
+public class SessionStore {
+    /** Returned by {@link #move} when the move is not legal. */
+    public static final int ILLEGAL = -1;
+    /** Returned by {@link #move} and {@link #moves} when the session does not exist. */
+    public static final int UNKNOWN = -2;
+    /** Set in the result of {@link #move} when the move solved the puzzle. */
+    public static final int SOLVED = 1 << 30;
+
+    private static final int STRIPES = 64;
+    private static final long EMPTY_SLOT = -1;
+
+    private final long[] states;
+    private final int[] moves;
+    private final long[] lastUsed;
+    private final int[] generations;
+    private final int[] freeSlots;
+    private final Object[] locks = new Object[STRIPES];
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private int freeCount;
+
+    public SessionStore(int capacity, Duration idleTimeout) {
+        this(capacity, idleTimeout, System::nanoTime);
+    }
+
+    SessionStore(int capacity, Duration idleTimeout, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.states = new long[capacity];
+        this.moves = new int[capacity];
+        this.lastUsed = new long[capacity];
+        this.generations = new int[capacity];
+        this.freeSlots = new int[capacity];
+        this.idleNanos = idleTimeout.toNanos();
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            states[slot] = EMPTY_SLOT;
+            freeSlots[slot] = capacity - 1 - slot;
+        }
+        freeCount = capacity;
+    }
+
+    /**
+     * Opens a session at the start position.
+     *
+     * @return the session id, or -1 when the store is full
+     */
+    public long create() {
+        int slot;
+        synchronized (freeSlots) {
+            if (freeCount == 0) {
+                return -1;
+            }
+            slot = freeSlots[--freeCount];
+        }
+        synchronized (lock(slot)) {
+            states[slot] = PackedState.START;
+            moves[slot] = 0;
+            lastUsed[slot] = clock.getAsLong();
+            return id(slot);
+        }
+    }
+
+    /**
+     * Moves the tile in cell {@code from} into cell {@code to}, both as numbered by {@link PackedState}.
+     * Whether the move solved the puzzle is decided under the session's lock, so it always describes the
+     * position this move produced even while other requests use the same session.
+     *
+     * @return the number of moves made so far, with {@link #SOLVED} set if the puzzle is now solved; or
+     * {@link #ILLEGAL} or {@link #UNKNOWN}. Read it with {@link #movesOf(int)} and {@link #isSolved(int)}
+     */
+    public int move(long id, int from, int to) {
+        int slot = slot(id);
+        if (slot < 0) {
+            return UNKNOWN;
+        }
+        synchronized (lock(slot)) {
+            if (!isLive(id, slot)) {
+                return UNKNOWN;
+            }
+            lastUsed[slot] = clock.getAsLong();
+            long state = states[slot];
+            if (from < 0 || to < 0 || !MoveGenerator.isLegalMove(state, from, to)) {
+                return ILLEGAL;
+            }
+            long next = PackedState.applyMove(state, from, to);
+            states[slot] = next;
+            return ++moves[slot] | (PackedState.isSolved(next) ? SOLVED : 0);
+        }
+    }
+
+    public static int movesOf(int result) {
+        return result & ~SOLVED;
+    }
+
+    public static boolean isSolved(int result) {
+        return result >= 0 && (result & SOLVED) != 0;
+    }
+
+    /**
+     * Returns the position of a session, or -1 when it does not exist.
+     */
+    public long state(long id) {
+        int slot = slot(id);
+        if (slot < 0) {
+            return -1;
+        }
+        synchronized (lock(slot)) {
+            if (!isLive(id, slot)) {
+                return -1;
+            }
+            lastUsed[slot] = clock.getAsLong();
+            return states[slot];
+        }
+    }
+
+    public int moves(long id) {
+        int slot = slot(id);
+        if (slot < 0) {
+            return UNKNOWN;
+        }
+        synchronized (lock(slot)) {
+            return isLive(id, slot) ? moves[slot] : UNKNOWN;
+        }
+    }
+
+    /**
+     * Puts a session back to the start position.
+     *
+     * @return {@code false} if the session does not exist
+     */
+    public boolean reset(long id) {
+        int slot = slot(id);
+        if (slot < 0) {
+            return false;
+        }
+        synchronized (lock(slot)) {
+            if (!isLive(id, slot)) {
+                return false;
+            }
+            states[slot] = PackedState.START;
+            moves[slot] = 0;
+            lastUsed[slot] = clock.getAsLong();
+            return true;
+        }
+    }
+
+    /**
+     * Closes a session and frees its slot.
+     *
+     * @return {@code false} if the session does not exist
+     */
+    public boolean close(long id) {
+        int slot = slot(id);
+        if (slot < 0) {
+            return false;
+        }
+        synchronized (lock(slot)) {
+            if (!isLive(id, slot)) {
+                return false;
+            }
+            release(slot);
+        }
+        freeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Closes every session that has been idle for longer than the idle timeout.
+     *
+     * @return the number of sessions evicted
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (int slot = 0; slot < states.length; slot++) {
+            boolean idle;
+            synchronized (lock(slot)) {
+                idle = states[slot] != EMPTY_SLOT && now - lastUsed[slot] > idleNanos;
+                if (idle) {
+                    release(slot);
+                }
+            }
+            if (idle) {
+                freeSlot(slot);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        synchronized (freeSlots) {
+            return states.length - freeCount;
+        }
+    }
+
+    public int capacity() {
+        return states.length;
+    }
+
+    public Duration getIdleTimeout() {
+        return Duration.ofNanos(idleNanos);
+    }
+
+    private void release(int slot) {
+        states[slot] = EMPTY_SLOT;
+        generations[slot] = (generations[slot] + 1) & Integer.MAX_VALUE;
+    }
+
+    private void freeSlot(int slot) {
+        synchronized (freeSlots) {
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    private boolean isLive(long id, int slot) {
+        return states[slot] != EMPTY_SLOT && generations[slot] == (int) (id >>> 32);
+    }
+
+    private long id(int slot) {
+        return ((long) generations[slot] << 32) | slot;
+    }
+
+    private int slot(long id) {
+        long slot = id & 0xFFFF_FFFFL;
+        return id < 0 || slot >= states.length ? -1 : (int) slot;
+    }
+
+    private Object lock(int slot) {
+        return locks[slot & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,91 @@
+package solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code Solution} class holds the result of a {@link Solver} run: the move sequence that reaches the
+ * solved board (or {@code null} when none was found) together with the number of expanded nodes and the
+ * time the search took. Moves are stored as codes built by {@link PackedState#moveCode(int, int)}.
+ * A search that ran out of time may instead hold the best partial path it found, which is not
+ * {@linkplain #isComplete() complete}.
+ */
+public final class Solution {
+    private final int[] moves;
+    private final boolean complete;
+    private final long nodesExpanded;
+    private final long elapsedNanos;
+
+    public Solution(int[] moves, long nodesExpanded, long elapsedNanos) {
+        this(moves, moves != null, nodesExpanded, elapsedNanos);
+    }
+
+    public Solution(int[] moves, boolean complete, long nodesExpanded, long elapsedNanos) {
+        this.moves = moves;
+        this.complete = complete;
+        this.nodesExpanded = nodesExpanded;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public boolean isFound() {
+        return moves != null;
+    }
+
+    /**
+     * Returns {@code true} if the moves reach the solved board, {@code false} for a partial path or when
+     * nothing was found.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns the number of moves in the solution, or -1 when no solution was found.
+     */
+    public int length() {
+        return moves == null ? -1 : moves.length;
+    }
+
+    /**
+     * Returns the move codes of the solution. The array must not be modified.
+     */
+    public int[] getMoveCodes() {
+        return moves;
+    }
+
+    /**
+     * Returns the moves as {@code {from, to}} coordinate pairs accepted by {@link Game#makeMove(int[], int[])}.
+     */
+    public List<int[][]> getMoves() {
+        List<int[][]> result = new ArrayList<>(Math.max(length(), 0));
+        if (moves != null) {
+            for (int code : moves) {
+                int from = PackedState.moveFrom(code);
+                int to = PackedState.moveTo(code);
+                result.add(new int[][]{
+                        {PackedState.rowOf(from), PackedState.colOf(from)},
+                        {PackedState.rowOf(to), PackedState.colOf(to)}
+                });
+            }
+        }
+        return result;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "Solution{" +
+                "length=" + length() +
+                ", nodesExpanded=" + nodesExpanded +
+                ", elapsed=" + getElapsed() +
+                '}';
+    }
+}
@@ -0,0 +1,223 @@
+package solver;
+
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@code SolutionCache} class remembers solved positions: for each packed position, the first move of
+ * a shortest solution and the number of moves left. It holds at most {@code capacity} positions and
+ * evicts the least recently used one to make room. Entries live in flat arrays, 18 bytes each plus the
+ * index, with the recency order kept as a doubly linked list of slot numbers, so the cache creates no
+ * objects per entry. All operations take the cache's lock; a lookup also moves the entry to the front, so
+ * even readers mutate the order and there is no separate read path.
+ *
+ * <p>{@link #snapshot(Path)} writes the entries from least to most recently used and {@link #load} inserts
+ * them in that order, so a reloaded cache evicts in the same order it would have. File layout: a 16-byte
+ * big-endian header (magic, number of entries, reserved, reserved) followed by 10-byte entries: the packed
+ * position, the move code and the distance.
+ */
+public class SolutionCache {
+    /** Returned by {@link #get(long)} for positions not in the cache. */
+    public static final int MISS = -1;
+
+    static final int MAGIC = 0x534C4331; // "SLC1"
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 10;
+
+    private static final Counter HITS = MetricsRegistry.global().counter("solution.cache.hits");
+    private static final Counter MISSES = MetricsRegistry.global().counter("solution.cache.misses");
+    private static final Counter EVICTIONS = MetricsRegistry.global().counter("solution.cache.evictions");
+    private static final int NONE = -1;
+
+    private final long[] states;
+    private final short[] entries;
+    private final int[] previous;
+    private final int[] next;
+    private final LongIntHashMap index;
+    private int head = NONE;
+    private int tail = NONE;
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Counts since the cache was created.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+                    size, capacity, hits, misses, hitRate() * 100, evictions);
+        }
+    }
+
+    public SolutionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.states = new long[capacity];
+        this.entries = new short[capacity];
+        this.previous = new int[capacity];
+        this.next = new int[capacity];
+        this.index = new LongIntHashMap(capacity);
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @return the entry as {@code moveCode << 8 | distance}, or {@link #MISS}; read it with
+     * {@link #moveOf(int)} and {@link #distanceOf(int)}
+     */
+    public synchronized int get(long state) {
+        int slot = index.get(state);
+        if (slot == LongIntHashMap.NO_VALUE) {
+            misses++;
+            MISSES.increment();
+            return MISS;
+        }
+        hits++;
+        HITS.increment();
+        unlink(slot);
+        linkFirst(slot);
+        return entries[slot] & 0xFFFF;
+    }
+
+    /**
+     * Records that {@code moveCode} starts a shortest solution of {@code state}, {@code distance} moves
+     * long. For the solved board the move code is ignored.
+     */
+    public synchronized void put(long state, int moveCode, int distance) {
+        if (distance < 0 || distance > 0xFF) {
+            throw new IllegalArgumentException("Distance out of range: " + distance);
+        }
+        int slot = index.get(state);
+        if (slot != LongIntHashMap.NO_VALUE) {
+            unlink(slot);
+        } else if (size < states.length) {
+            slot = size++;
+        } else {
+            slot = tail;
+            unlink(slot);
+            index.remove(states[slot]);
+            evictions++;
+            EVICTIONS.increment();
+        }
+        states[slot] = state;
+        entries[slot] = (short) ((moveCode & 0xFF) << 8 | distance);
+        index.put(state, slot);
+        linkFirst(slot);
+    }
+
+    public static int moveOf(int entry) {
+        return entry >>> 8;
+    }
+
+    public static int distanceOf(int entry) {
+        return entry & 0xFF;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return states.length;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, size, states.length);
+    }
+
+    /**
+     * Writes every entry to {@code file}, replacing it atomically.
+     */
+    public void snapshot(Path file) throws IOException {
+        ByteBuffer buffer;
+        synchronized (this) {
+            buffer = ByteBuffer.allocate(HEADER_SIZE + size * ENTRY_SIZE)
+                    .putInt(MAGIC).putInt(size).putInt(0).putInt(0);
+            for (int slot = tail; slot != NONE; slot = previous[slot]) {
+                buffer.putLong(states[slot]).putShort(entries[slot]);
+            }
+        }
+        buffer.flip();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Creates a cache holding the entries of a snapshot, or an empty one if {@code file} does not exist.
+     * When the snapshot holds more than {@code capacity} entries the least recently used are dropped.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static SolutionCache load(Path file, int capacity) throws IOException {
+        SolutionCache cache = new SolutionCache(capacity);
+        if (!Files.exists(file)) {
+            return cache;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a solution cache snapshot: " + file);
+        }
+        int count = buffer.getInt();
+        if (buffer.capacity() != HEADER_SIZE + (long) count * ENTRY_SIZE) {
+            throw new IOException("Truncated solution cache snapshot: " + file);
+        }
+        buffer.position(HEADER_SIZE + Math.max(count - capacity, 0) * ENTRY_SIZE);
+        while (buffer.hasRemaining()) {
+            long state = buffer.getLong();
+            int entry = buffer.getShort() & 0xFFFF;
+            cache.put(state, moveOf(entry), distanceOf(entry));
+        }
+        return cache;
+    }
+
+    private void unlink(int slot) {
+        int before = previous[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            head = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tail = before;
+        } else {
+            previous[after] = before;
+        }
+    }
+
+    private void linkFirst(int slot) {
+        previous[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) {
+            previous[head] = slot;
+        }
+        head = slot;
+        if (tail == NONE) {
+            tail = slot;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package solver;
+
+/**
+ * The {@code Solver} interface is implemented by the search engines that find a shortest sequence of moves
+ * from a {@link Game} position to the solved board.
+ */
+public interface Solver {
+
+    /**
+     * Searches for a shortest solution of the given position. The game itself is not modified.
+     *
+     * @param game the position to solve
+     * @return the solution together with search statistics
+     */
+    default Solution solve(Game game) {
+        return solve(PackedState.encode(game));
+    }
+
+    /**
+     * Searches for a shortest solution of a packed position.
+     *
+     * @param state the position to solve, as built by {@link PackedState}
+     * @return the solution together with search statistics
+     */
+    Solution solve(long state);
+}
@@ -0,0 +1,76 @@
+package solver;
+
+/**
+ * The {@code StateRank} class is a perfect hash between packed positions and the integers
+ * {@code 0 .. COUNT - 1}. A position is a partial permutation: tile 1 sits in one of 13 cells, tile 2 in
+ * one of the 12 remaining cells and so on down to tile 9 with 5 choices, giving 13!/4! ranks. The rank is
+ * the mixed-radix number formed by each tile's index among the cells still free when it is placed.
+ */
+public final class StateRank {
+    /** Number of distinct positions, 13!/4!. */
+    public static final int COUNT = count();
+
+    private static final int[] WEIGHTS = weights();
+
+    private StateRank() {
+    }
+
+    /**
+     * Returns the rank of a position holding each of the tiles 1-9 exactly once. Nothing is allocated: the
+     * cell of each tile is gathered into a {@code long}, four bits per tile, and the cells already taken
+     * are tracked as a bitmask.
+     */
+    public static int rank(long state) {
+        long cells = 0;
+        for (int cell = 0; cell < PackedState.CELLS; cell++) {
+            cells |= (long) cell << (PackedState.tileAt(state, cell) * 4);
+        }
+        int used = 0;
+        int rank = 0;
+        for (int tile = 1; tile <= PackedState.TILES; tile++) {
+            int cell = (int) (cells >>> (tile * 4)) & 0xF;
+            int index = cell - Integer.bitCount(used & ((1 << cell) - 1));
+            rank += index * WEIGHTS[tile];
+            used |= 1 << cell;
+        }
+        return rank;
+    }
+
+    public static long unrank(int rank) {
+        int free = (1 << PackedState.CELLS) - 1;
+        long state = 0;
+        for (int tile = 1; tile <= PackedState.TILES; tile++) {
+            int index = rank / WEIGHTS[tile];
+            rank -= index * WEIGHTS[tile];
+            int cell = selectBit(free, index);
+            free &= ~(1 << cell);
+            state = PackedState.withTile(state, cell, tile);
+        }
+        return state;
+    }
+
+    private static int selectBit(int mask, int index) {
+        for (int i = 0; i < index; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    private static int count() {
+        int count = 1;
+        for (int i = 0; i < PackedState.TILES; i++) {
+            count *= PackedState.CELLS - i;
+        }
+        return count;
+    }
+
+    private static int[] weights() {
+        int[] weights = new int[PackedState.TILES + 1];
+        int weight = 1;
+        for (int tile = PackedState.TILES; tile >= 1; tile--) {
+            weights[tile] = weight;
+            weight *= PackedState.CELLS - tile + 1;
+        }
+        return weights;
+    }
+}
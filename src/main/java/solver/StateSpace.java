@@ -0,0 +1,59 @@
+package solver;
+
+/**
+ * The {@code StateSpace} interface describes positions packed into a {@code long} and the moves between
+ * them, which is all {@link ExternalBreadthFirstSearch} needs to sweep a board. Moves must be reversible:
+ * whenever {@code b} is a successor of {@code a}, {@code a} is a successor of {@code b}.
+ */
+public interface StateSpace {
+    /**
+     * The classic board in the {@link PackedState} encoding.
+     */
+    StateSpace CLASSIC = new StateSpace() {
+        @Override
+        public long goal() {
+            return PackedState.SOLVED;
+        }
+
+        @Override
+        public int maxSuccessors() {
+            return MoveGenerator.MAX_MOVES;
+        }
+
+        @Override
+        public int successors(long state, long[] buffer, int offset) {
+            int occupied = MoveGenerator.occupiedMask(state);
+            int empty = MoveGenerator.emptyMask(state);
+            int count = 0;
+            while (empty != 0) {
+                int to = Integer.numberOfTrailingZeros(empty);
+                empty &= empty - 1;
+                int sources = MoveGenerator.adjacentMask(to) & occupied;
+                while (sources != 0) {
+                    int from = Integer.numberOfTrailingZeros(sources);
+                    sources &= sources - 1;
+                    buffer[offset + count++] = PackedState.applyMove(state, from, to);
+                }
+            }
+            return count;
+        }
+    };
+
+    /**
+     * Returns the packed solved position.
+     */
+    long goal();
+
+    /**
+     * Returns the largest number of successors any position can have.
+     */
+    int maxSuccessors();
+
+    /**
+     * Writes the packed successors of {@code state} to {@code buffer} starting at {@code offset}, which
+     * must leave room for {@link #maxSuccessors()} of them.
+     *
+     * @return the number of successors written
+     */
+    int successors(long state, long[] buffer, int offset);
+}
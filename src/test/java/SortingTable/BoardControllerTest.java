@@ -0,0 +1,40 @@
+package SortingTable;
+
+import metrics.MoveEventSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import solver.Game;
+import solver.PackedState;
+import solver.Replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardControllerTest {
+
+    @Test
+    public void testSolvingMoveIsRecordedWithItsMoveCount(@TempDir Path dir) throws IOException {
+        long oneAway = PackedState.applyMove(PackedState.SOLVED, 8, 9);
+        Game game = PackedState.decode(oneAway, 41);
+        Replay.Recorder replay = new Replay.Recorder(oneAway);
+        Path file = dir.resolve("moves.bin");
+        boolean solved;
+        try (MoveEventSink sink = new MoveEventSink(file, 16)) {
+            solved = BoardController.applyMove(game, new int[]{1, 9}, new int[]{1, 8}, replay, sink);
+            // the controller replaces a solved game right away; the record must not depend on it
+            game.resetGame();
+        }
+
+        assertTrue(solved);
+        List<int[]> records = new ArrayList<>();
+        MoveEventSink.read(file, (epochMillis, moves, fromRow, fromCol, toRow, toCol) ->
+                records.add(new int[]{moves, fromRow, fromCol, toRow, toCol}));
+        assertEquals(1, records.size());
+        assertArrayEquals(new int[]{42, 1, 9, 1, 8}, records.get(0));
+        assertTrue(replay.toReplay().verify().solved());
+    }
+}
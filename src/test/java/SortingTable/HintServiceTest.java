@@ -0,0 +1,110 @@
+package SortingTable;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import solver.AStarSolver;
+import solver.Game;
+import solver.IdaStarSolver;
+import solver.PackedState;
+import solver.PatternDatabase;
+import solver.Solution;
+import solver.Solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HintServiceTest {
+
+    @Test
+    public void testRequestDeliversSolutionForCopy() throws InterruptedException {
+        HintService service = new HintService(new AStarSolver());
+        Game game = new Game();
+        game.makeMove(new int[]{1, 1}, new int[]{1, 0});
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Solution> result = new AtomicReference<>();
+        service.request(game, solution -> {
+            result.set(solution);
+            done.countDown();
+        });
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(1, game.getMoves(), "The original game must not be touched");
+        assertTrue(result.get().isFound());
+        service.shutdown();
+    }
+
+    @Test
+    public void testNewRequestCancelsPendingOne() throws InterruptedException {
+        HintService service = new HintService(new AStarSolver());
+        AtomicInteger delivered = new AtomicInteger();
+        CountDownLatch last = new CountDownLatch(1);
+
+        for (int i = 0; i < 5; i++) {
+            service.request(new Game(), solution -> delivered.incrementAndGet());
+        }
+        Game nearlySolved = new Game(new char[][]{
+                {'X', 'X', 'X', ' ', 'X', ' ', 'X', ' ', 'X', 'X'},
+                {'1', '2', '3', '4', '5', '6', '7', '8', ' ', '9'}
+        }, 1, 8, 0);
+        service.request(nearlySolved, solution -> {
+            assertEquals(1, solution.length());
+            last.countDown();
+        });
+
+        assertTrue(last.await(30, TimeUnit.SECONDS));
+        assertEquals(0, delivered.get(), "Cancelled requests must not deliver a hint");
+        service.shutdown();
+    }
+
+    @Test
+    public void testHintsFallBackToSearchWhileSolverLoads() throws InterruptedException {
+        CountDownLatch loaded = new CountDownLatch(1);
+        HintService service = new HintService((Executor background) -> {
+            try {
+                loaded.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new AStarSolver();
+        });
+        Game game = new Game();
+        game.makeMove(new int[]{1, 1}, new int[]{1, 0});
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Solution> result = new AtomicReference<>();
+        service.request(game, solution -> {
+            result.set(solution);
+            done.countDown();
+        });
+
+        assertTrue(done.await(30, TimeUnit.SECONDS), "A hint must not wait for the solver to load");
+        assertTrue(result.get().isFound());
+        loaded.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    public void testSearchWithPatternDatabaseStaysWithinBudget(@TempDir Path dir) throws IOException {
+        Path patterns = dir.resolve(PatternDatabase.DEFAULT_FILE);
+        PatternDatabase.build(new int[]{1, 2, 3}, new int[]{4, 5, 6}, new int[]{7, 8, 9}).write(patterns);
+        Solver solver = HintService.searchSolver(patterns);
+        assertInstanceOf(IdaStarSolver.class, solver);
+
+        long begin = System.nanoTime();
+        Solution solution = solver.solve(PackedState.START);
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        assertTrue(solution.isFound(), "A search that runs out of time still suggests a move");
+        assertTrue(elapsedMillis < HintService.SEARCH_BUDGET.toMillis() + 250,
+                "Took " + elapsedMillis + " ms");
+    }
+}
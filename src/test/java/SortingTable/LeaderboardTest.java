@@ -0,0 +1,85 @@
+package SortingTable;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardTest {
+    private static final LocalDateTime BEGIN = LocalDateTime.of(2024, 10, 7, 11, 0);
+
+    private static Scores score(String name, int steps, int seconds) {
+        return new Scores(name, BEGIN, BEGIN.plusSeconds(seconds), steps, true);
+    }
+
+    @Test
+    public void testTopOrdersByStepsThenDuration() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.add(score("a", 90, 60));
+        leaderboard.add(score("b", 80, 120));
+        leaderboard.add(score("c", 80, 30));
+        leaderboard.add(score("d", 100, 10));
+        leaderboard.add(score("e", 75, 500));
+
+        List<Scores> top = leaderboard.top();
+        assertEquals(List.of("e", "c", "b"), top.stream().map(Scores::getName).toList());
+        assertEquals(5, leaderboard.size());
+    }
+
+    @Test
+    public void testTopMatchesFullSort() {
+        Random random = new Random(3);
+        Leaderboard leaderboard = new Leaderboard();
+        List<Scores> all = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Scores score = score("p" + random.nextInt(50), 75 + random.nextInt(400), random.nextInt(3600));
+            all.add(score);
+            leaderboard.add(score);
+        }
+        Comparator<Scores> order = Comparator.comparingInt(Scores::getSteps)
+                .thenComparing(s -> Duration.between(s.getBegin(), s.getEnd()));
+        List<Scores> expected = all.stream().sorted(order).limit(10).toList();
+        assertEquals(expected, leaderboard.top());
+
+        for (int i = 0; i < 100; i++) {
+            Scores probe = all.get(random.nextInt(all.size()));
+            long better = all.stream().filter(s -> order.compare(s, probe) < 0).count();
+            assertEquals(better + 1, leaderboard.rankOf(probe));
+        }
+    }
+
+    @Test
+    public void testBestOfPlayerAndRankLookups() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.add(score("kayo", 90, 60));
+        leaderboard.add(score("kayo", 85, 200));
+        leaderboard.add(score("other", 80, 10));
+
+        assertEquals(85, leaderboard.bestOf("kayo").orElseThrow().getSteps());
+        assertTrue(leaderboard.bestOf("nobody").isEmpty());
+        assertEquals(1, leaderboard.rankOf(75, Duration.ofMinutes(1)));
+        assertEquals(2, leaderboard.rankOf(85, Duration.ofSeconds(200)));
+        assertEquals(3, leaderboard.rankOf(85, Duration.ofSeconds(201)));
+        assertEquals(4, leaderboard.rankOf(1_000, Duration.ZERO));
+    }
+
+    @Test
+    public void testHugeStepTotalsAndDurationsAreRanked() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.add(score("a", 90, 60));
+        leaderboard.add(new Scores("b", BEGIN, BEGIN.plusYears(100), 2_000_000_000, true));
+        leaderboard.add(new Scores("c", LocalDateTime.MIN, LocalDateTime.MAX, Integer.MAX_VALUE, true));
+        leaderboard.add(score("d", 80, 60));
+
+        assertEquals(List.of("d", "a", "b", "c"), leaderboard.top().stream().map(Scores::getName).toList());
+        assertEquals(3, leaderboard.rankOf(2_000_000_000, Duration.ZERO));
+        assertEquals(4, leaderboard.rankOf(2_000_000_000, Duration.ofDays(365 * 200)));
+        assertEquals(4, leaderboard.rankOf(Integer.MAX_VALUE, Duration.ZERO));
+    }
+}
@@ -0,0 +1,195 @@
+package SortingTable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreJournalTest {
+    @TempDir
+    Path dir;
+
+    private ObjectMapper objectMapper;
+    private Path snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        snapshot = dir.resolve("highscores.json");
+    }
+
+    private static Scores score(int steps) {
+        LocalDateTime begin = LocalDateTime.of(2024, 10, 7, 11, 5, 32);
+        return new Scores("Player" + steps, begin, begin.plusMinutes(2), steps, true);
+    }
+
+    @Test
+    public void testAppendedScoresSurviveReload() throws IOException {
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            assertTrue(journal.load().isEmpty());
+            journal.append(score(80));
+            journal.append(score(77));
+        }
+        assertFalse(Files.exists(snapshot), "Appends must not rewrite the snapshot");
+
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            List<Scores> scores = journal.load();
+            assertEquals(2, scores.size());
+            assertEquals(80, scores.get(0).getSteps());
+            assertEquals(77, scores.get(1).getSteps());
+        }
+    }
+
+    @Test
+    public void testCompactionWritesLegacySnapshot() throws IOException {
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper, 3)) {
+            journal.load();
+            for (int i = 0; i < 4; i++) {
+                journal.append(score(100 + i));
+            }
+        }
+        // The snapshot stays a plain JSON array, readable the way highscores.json always was
+        Scores[] compacted = objectMapper.readValue(snapshot.toFile(), Scores[].class);
+        assertEquals(3, compacted.length);
+
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper, 3)) {
+            assertEquals(4, journal.load().size());
+        }
+    }
+
+    @Test
+    public void testRemovalSurvivesCrashBeforeSnapshotRename() throws IOException {
+        Path journalFile = dir.resolve("highscores.json.journal");
+        Path tempFile = dir.resolve("highscores.json.tmp");
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            journal.load();
+            for (int i = 0; i < 10; i++) {
+                journal.append(score(100 + i));
+            }
+            journal.compact();
+            for (int i = 10; i < 15; i++) {
+                journal.append(score(100 + i));
+            }
+        }
+        byte[] oldSnapshot = Files.readAllBytes(snapshot);
+        byte[] oldJournal = Files.readAllBytes(journalFile);
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            journal.load();
+            assertEquals(3, journal.removeIf(s -> s.getSteps() % 5 == 0));
+        }
+        byte[] newSnapshot = Files.readAllBytes(snapshot);
+        assertEquals(0, Files.size(journalFile));
+
+        // Crash after the journal was emptied but before the rename: the new snapshot is the newest state
+        Files.write(snapshot, oldSnapshot);
+        Files.write(tempFile, newSnapshot);
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            List<Scores> scores = journal.load();
+            assertEquals(12, scores.size());
+            assertTrue(scores.stream().noneMatch(s -> s.getSteps() % 5 == 0));
+        }
+        assertFalse(Files.exists(tempFile));
+
+        // Crash before the journal was emptied: the old snapshot and its journal still hold every score
+        Files.write(snapshot, oldSnapshot);
+        Files.write(journalFile, oldJournal);
+        Files.write(tempFile, newSnapshot);
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            assertEquals(15, journal.load().size());
+        }
+        assertFalse(Files.exists(tempFile));
+    }
+
+    @Test
+    public void testTornRecordIsDroppedAndEarlierScoresKept() throws IOException {
+        Path journalFile = dir.resolve("highscores.json.journal");
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            journal.load();
+            journal.append(score(70));
+        }
+        Files.write(journalFile, "{\"seq\":1,\"score\":{\"name\":\"Pla".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            assertEquals(1, journal.load().size());
+            journal.append(score(71));
+        }
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            List<Scores> scores = journal.load();
+            assertEquals(2, scores.size());
+            assertEquals(71, scores.get(1).getSteps());
+        }
+    }
+
+    @Test
+    public void testBytesOfFailedWriteAreCutOffBeforeNextAppend() throws IOException {
+        Path journalFile = dir.resolve("highscores.json.journal");
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            journal.load();
+            journal.append(score(60));
+            // Stand-in for a write that failed part way and could not be truncated: the channel is closed
+            // and torn bytes are left behind
+            journal.close();
+            Files.write(journalFile, "{\"seq\":1,\"sco".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            journal.append(score(61));
+        }
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            List<Scores> scores = journal.load();
+            assertEquals(2, scores.size());
+            assertEquals(61, scores.get(1).getSteps());
+        }
+    }
+
+    @Test
+    public void testJournalRecordAfterGapIsIgnored() throws IOException {
+        Path journalFile = dir.resolve("highscores.json.journal");
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            journal.load();
+            journal.append(score(50));
+        }
+        String line = Files.readString(journalFile).replace("\"seq\":0", "\"seq\":2");
+        assertTrue(line.contains("\"seq\":2"));
+        Files.writeString(journalFile, line, StandardOpenOption.APPEND);
+
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            assertEquals(1, journal.load().size());
+        }
+    }
+
+    @Test
+    public void testCorruptRecordIsSetAsideAndLaterRecordsKept() throws IOException {
+        Path journalFile = dir.resolve("highscores.json.journal");
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            journal.load();
+            for (int i = 0; i < 4; i++) {
+                journal.append(score(80 + i));
+            }
+        }
+        List<String> lines = Files.readAllLines(journalFile);
+        String corrupt = lines.get(1).replace("\"steps\"", "\"stpes\"");
+        lines.set(1, corrupt);
+        Files.write(journalFile, lines);
+
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            List<Scores> scores = journal.load();
+            assertEquals(List.of(80, 82, 83), scores.stream().map(Scores::getSteps).toList());
+            journal.append(score(84));
+        }
+        assertEquals(List.of(corrupt), Files.readAllLines(dir.resolve("highscores.json.corrupt")));
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            assertEquals(List.of(80, 82, 83, 84), journal.load().stream().map(Scores::getSteps).toList());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package SortingTable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import solver.AStarSolver;
+import solver.Game;
+import solver.PackedState;
+import solver.Replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreVerifierTest {
+    private static final LocalDateTime BEGIN = LocalDateTime.of(2024, 10, 7, 11, 5, 32);
+
+    private static byte[] optimalMoves;
+
+    private final ScoreVerifier verifier = new ScoreVerifier();
+
+    @BeforeAll
+    public static void solveStart() {
+        int[] codes = new AStarSolver().solve(new Game()).getMoveCodes();
+        optimalMoves = new byte[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            optimalMoves[i] = (byte) codes[i];
+        }
+    }
+
+    private static Scores score(int steps, long seconds) {
+        return new Scores("Player", BEGIN, BEGIN.plusSeconds(seconds), steps, true);
+    }
+
+    private static Scores replayed(long start, byte[] moves) {
+        Scores score = score(moves.length, 120);
+        score.setReplay(new Replay(start, moves).toBytes());
+        return score;
+    }
+
+    @Test
+    public void testOptimumMatchesSolver() {
+        assertEquals(ScoreVerifier.START_OPTIMUM, optimalMoves.length);
+    }
+
+    @Test
+    public void testPlausibleScoresAreValid() {
+        assertEquals(ScoreVerifier.Verdict.VALID, verifier.verify(score(77, 113)));
+        assertEquals(ScoreVerifier.Verdict.VALID, verifier.verify(replayed(PackedState.START, optimalMoves)));
+    }
+
+    @Test
+    public void testImpossibleClaimsAreRejected() {
+        assertEquals(ScoreVerifier.Verdict.BELOW_OPTIMUM, verifier.verify(score(74, 120)));
+        assertEquals(ScoreVerifier.Verdict.TOO_FAST, verifier.verify(score(80, 5)));
+        assertEquals(ScoreVerifier.Verdict.MISSING_TIMES, verifier.verify(score(80, -1)));
+        assertEquals(ScoreVerifier.Verdict.MISSING_TIMES,
+                verifier.verify(new Scores("Player", null, BEGIN, 80, true)));
+        assertEquals(ScoreVerifier.Verdict.NOT_FINISHED,
+                verifier.verify(new Scores("Player", BEGIN, BEGIN.plusMinutes(2), 80, false)));
+    }
+
+    @Test
+    public void testExtremeTimesAreRejected() {
+        LocalDateTime first = LocalDateTime.of(1, 1, 1, 0, 0);
+        LocalDateTime last = LocalDateTime.of(9999, 12, 31, 23, 59);
+        assertEquals(ScoreVerifier.Verdict.IMPLAUSIBLE_TIMES,
+                verifier.verify(new Scores("Player", first, last, 80, true)));
+        assertEquals(ScoreVerifier.Verdict.IMPLAUSIBLE_TIMES,
+                verifier.verify(new Scores("Player", LocalDateTime.MIN, LocalDateTime.MAX, 80, true)));
+        assertEquals(ScoreVerifier.Verdict.MISSING_TIMES,
+                verifier.verify(new Scores("Player", LocalDateTime.MAX, LocalDateTime.MIN, 80, true)));
+        assertEquals(ScoreVerifier.Verdict.IMPLAUSIBLE_TIMES,
+                verifier.verify(new Scores("Player", BEGIN, BEGIN.plusDays(8), Integer.MAX_VALUE, true)));
+    }
+
+    @Test
+    public void testReplaysMustMatchTheClaim() {
+        Scores mismatch = replayed(PackedState.START, optimalMoves);
+        Scores claimed = new Scores("Player", mismatch.getBegin(), mismatch.getEnd(), 80, true);
+        claimed.setReplay(mismatch.getReplay());
+        assertEquals(ScoreVerifier.Verdict.REPLAY_MISMATCH, verifier.verify(claimed));
+
+        byte[] illegal = optimalMoves.clone();
+        illegal[1] = illegal[0];
+        assertEquals(ScoreVerifier.Verdict.ILLEGAL_REPLAY, verifier.verify(replayed(PackedState.START, illegal)));
+
+        assertEquals(ScoreVerifier.Verdict.WRONG_START,
+                verifier.verify(replayed(PackedState.applyMove(PackedState.START, PackedState.moveFrom(
+                        optimalMoves[0] & 0xFF), PackedState.moveTo(optimalMoves[0] & 0xFF)), optimalMoves)));
+
+        Scores malformed = score(80, 120);
+        malformed.setReplay(new byte[]{1, 2, 3});
+        assertEquals(ScoreVerifier.Verdict.MALFORMED_REPLAY, verifier.verify(malformed));
+    }
+
+    @Test
+    public void testVerifyAllKeepsOrder() {
+        List<Scores> scores = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            scores.add(i % 10 == 0 ? score(10, 120) : score(75 + i % 50, 120));
+        }
+        ScoreVerifier.Report report = verifier.verifyAll(scores);
+        assertEquals(9_000, report.accepted().size());
+        assertEquals(1_000, report.rejected().size());
+        assertSame(scores.get(1), report.accepted().get(0));
+        assertSame(scores.get(10), report.rejected().get(1).score());
+        assertEquals(ScoreVerifier.Verdict.BELOW_OPTIMUM, report.rejected().get(0).verdict());
+    }
+
+    @Test
+    public void testQuarantineRemovesRejectedScores(@TempDir Path dir) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        Path snapshot = dir.resolve("highscores.json");
+        Path quarantine = dir.resolve("quarantine.jsonl");
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            journal.load();
+            journal.appendAll(List.of(score(80, 120), score(3, 120), replayed(PackedState.START, optimalMoves)));
+            ScoreVerifier.Report report = verifier.quarantine(journal, quarantine, objectMapper);
+            assertEquals(1, report.rejected().size());
+            assertEquals(2, journal.getScores().size());
+        }
+        try (ScoreJournal journal = new ScoreJournal(snapshot, objectMapper)) {
+            List<Scores> reloaded = journal.load();
+            assertEquals(2, reloaded.size());
+            assertArrayEquals(new Replay(PackedState.START, optimalMoves).toBytes(), reloaded.get(1).getReplay());
+        }
+        List<String> lines = Files.readAllLines(quarantine);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("BELOW_OPTIMUM"));
+    }
+}
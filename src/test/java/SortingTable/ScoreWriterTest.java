@@ -0,0 +1,51 @@
+package SortingTable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreWriterTest {
+    @TempDir
+    Path dir;
+
+    private ScoreJournal journal() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return new ScoreJournal(dir.resolve("highscores.json"), objectMapper);
+    }
+
+    @Test
+    public void testCloseFlushesQueuedScores() throws IOException {
+        ScoreJournal journal = journal();
+        journal.load();
+        ScoreWriter writer = new ScoreWriter(journal);
+        LocalDateTime begin = LocalDateTime.of(2024, 10, 7, 11, 0);
+        for (int i = 0; i < 100; i++) {
+            writer.submit(new Scores("Player", begin, begin.plusMinutes(1), 80 + i, true));
+        }
+        writer.close();
+
+        ScoreJournal reloaded = journal();
+        assertEquals(100, reloaded.load().size());
+        assertEquals(179, reloaded.getScores().get(99).getSteps());
+        reloaded.close();
+    }
+
+    @Test
+    public void testSubmitAfterCloseIsRejected() throws IOException {
+        ScoreJournal journal = journal();
+        journal.load();
+        ScoreWriter writer = new ScoreWriter(journal);
+        writer.close();
+        writer.close();
+        assertThrows(IllegalStateException.class,
+                () -> writer.submit(new Scores("Player", LocalDateTime.now(), LocalDateTime.now(), 1, true)));
+    }
+}
@@ -0,0 +1,73 @@
+package metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testHistogramBuckets() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucket(value);
+            assertTrue(Histogram.upperBound(bucket) >= value, "upper bound of " + value);
+            assertTrue(bucket == 0 || Histogram.upperBound(bucket - 1) < value, "lower bound of " + value);
+        }
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        Histogram histogram = new MetricsRegistry().histogram("test.nanos");
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5);
+        assertEquals(1001, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        long p50 = histogram.percentile(0.5);
+        assertTrue(p50 >= 500 && p50 <= 500 * 1.125, "p50 " + p50);
+        long p99 = histogram.percentile(0.99);
+        assertTrue(p99 >= 990 && p99 <= 1000, "p99 " + p99);
+        assertEquals(0, new MetricsRegistry().histogram("empty").percentile(0.5));
+    }
+
+    @Test
+    void testRegistryReusesInstrumentsAndReports() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("b.count").add(3);
+        registry.counter("b.count").increment();
+        registry.histogram("a.nanos").record(42);
+        registry.counter("unused");
+        assertSame(registry.counter("b.count"), registry.counter("b.count"));
+        String[] lines = registry.report().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("a.nanos count=1"));
+        assertEquals("b.count 4", lines[1]);
+    }
+
+    @Test
+    void testSolveEventIsRecorded(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("solve.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(SolveEvent.class);
+            recording.start();
+            SolveEvent.record("TestSolver", 2_000, 1_000_000, 7);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("sortingpuzzle.Solve"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("TestSolver", events.get(0).getString("solver"));
+        assertEquals(2_000_000, events.get(0).getLong("nodesPerSecond"));
+        assertTrue(MetricsRegistry.global().counter("solver.nodes").get() >= 2_000);
+    }
+}
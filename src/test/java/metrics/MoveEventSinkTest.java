@@ -0,0 +1,45 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveEventSinkTest {
+
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("moves.bin");
+        try (MoveEventSink sink = new MoveEventSink(file, 1 << 16)) {
+            for (int i = 1; i <= 10_000; i++) {
+                assertTrue(sink.record(1, i % 10, 0, 3, i));
+            }
+        }
+        try (MoveEventSink sink = new MoveEventSink(file, 16)) {
+            assertTrue(sink.record(0, 5, 1, 5, 10_001));
+            sink.close();
+            assertFalse(sink.record(0, 5, 1, 5, 10_002));
+        }
+        assertEquals(MoveEventSink.HEADER_SIZE + 10_001L * MoveEventSink.RECORD_SIZE, Files.size(file));
+        List<int[]> moves = new ArrayList<>();
+        long count = MoveEventSink.read(file, (epochMillis, moveCount, fromRow, fromCol, toRow, toCol) -> {
+            assertTrue(epochMillis > 0);
+            moves.add(new int[]{moveCount, fromRow, fromCol, toRow, toCol});
+        });
+        assertEquals(10_001, count);
+        assertArrayEquals(new int[]{1, 1, 1, 0, 3}, moves.get(0));
+        assertArrayEquals(new int[]{10_001, 0, 5, 1, 5}, moves.get(10_000));
+    }
+
+    @Test
+    void testRejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("other.bin"), "not a move file at all");
+        assertThrows(IOException.class, () -> MoveEventSink.read(file, (a, b, c, d, e, f) -> { }));
+    }
+}
@@ -0,0 +1,77 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+
+    @Test
+    void testBoardStringRoundTrip() {
+        assertEquals("XXX X X XX/ 234567891", PackedState.toBoardString(PackedState.START));
+        assertEquals(PackedState.START, PackedState.parse("XXX X X XX/ 234567891"));
+        assertThrows(IllegalArgumentException.class, () -> PackedState.parse("XXX X X XX/ 234567899"));
+        assertThrows(IllegalArgumentException.class, () -> PackedState.parse("XXX X X XX 234567891"));
+    }
+
+    @Test
+    void testSolvesEveryLineWithSmallQueue() throws IOException, InterruptedException {
+        StringBuilder input = new StringBuilder();
+        for (long seed = 0; seed < 40; seed++) {
+            input.append(PackedState.toBoardString(SolverTest.scramble(seed, 12))).append('\n');
+        }
+        input.append("not a board\n");
+        StringWriter output = new StringWriter();
+
+        long lines = new BatchSolver(new AStarSolver(), 3, 2).run(new StringReader(input.toString()), output);
+
+        assertEquals(41, lines);
+        Map<Long, String[]> results = Arrays.stream(output.toString().split("\n"))
+                .map(line -> line.split("\t"))
+                .collect(Collectors.toMap(fields -> Long.parseLong(fields[0]), fields -> fields));
+        assertEquals(41, results.size());
+        for (long line = 1; line <= 40; line++) {
+            String[] fields = results.get(line);
+            long state = PackedState.parse(fields[1]);
+            assertEquals(new BreadthFirstSolver().solve(state).length(), Integer.parseInt(fields[2]));
+        }
+        assertEquals("ERROR", results.get(41L)[2]);
+    }
+
+    @Test
+    void testSolverFailureIsReportedAndBatchCompletes() {
+        long failing = SolverTest.scramble(3, 12);
+        Solver solver = state -> {
+            if (state == failing) {
+                throw new IllegalStateException("boom");
+            }
+            return new AStarSolver().solve(state);
+        };
+        StringBuilder input = new StringBuilder("\n");
+        for (long seed = 0; seed < 10; seed++) {
+            input.append(PackedState.toBoardString(SolverTest.scramble(seed, 12))).append('\n');
+        }
+        StringWriter output = new StringWriter();
+
+        long positions = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> new BatchSolver(solver, 1, 1).run(new StringReader(input.toString()), output));
+
+        assertEquals(10, positions);
+        Map<Long, String[]> results = Arrays.stream(output.toString().split("\n"))
+                .map(line -> line.split("\t"))
+                .collect(Collectors.toMap(fields -> Long.parseLong(fields[0]), fields -> fields));
+        assertEquals(10, results.size());
+        // line 1 is blank, so the position of seed 3 is on line 5
+        assertEquals("ERROR", results.get(5L)[2]);
+        assertEquals(failing, PackedState.parse(results.get(5L)[1]));
+        assertNotEquals("ERROR", results.get(11L)[2]);
+    }
+}
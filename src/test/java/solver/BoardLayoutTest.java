@@ -0,0 +1,82 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardLayoutTest {
+
+    @Test
+    void testClassicMatchesOriginalBoard() {
+        BoardLayout layout = BoardLayout.CLASSIC;
+        assertEquals(2, layout.rows());
+        assertEquals(10, layout.cols());
+        int[] blackBoxes = {0, 1, 2, 4, 6, 8, 9};
+        for (int col : blackBoxes) {
+            assertTrue(layout.isBlocked(0, col));
+        }
+        assertEquals(13, Long.bitCount(layout.playableMask()));
+        assertEquals(MoveGenerator.MAX_MOVES, layout.maxMoves());
+        assertArrayEquals(PackedState.toBoard(PackedState.SOLVED), layout.goalBoard());
+        assertArrayEquals(PackedState.toBoard(PackedState.START), layout.startBoard());
+    }
+
+    @Test
+    void testNeighbourTables() {
+        BoardLayout layout = BoardLayout.WIDE;
+        int corner = layout.index(0, 0);
+        assertArrayEquals(new int[]{layout.index(1, 0), layout.index(0, 1)}, layout.neighbours(corner));
+        int middle = layout.index(1, 4);
+        assertEquals(4, layout.neighbours(middle).length);
+        for (int neighbour : layout.neighbours(middle)) {
+            assertNotEquals(0, layout.neighbourMask(middle) & (1L << neighbour));
+        }
+    }
+
+    @Test
+    void testRejectsInvalidLayouts() {
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.parse("X 1/123", "X 1/123"));
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.parse("X /12", "  /12"));
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.parse("X /12", "X /13"));
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.parse("X /11", "X /11"));
+        assertThrows(IllegalArgumentException.class, () -> new BoardLayout(5, 13, 0, new char[5][13], new char[5][13]));
+    }
+
+    @Test
+    void testLargerLayoutsPlay() {
+        for (BoardLayout layout : new BoardLayout[]{BoardLayout.CLASSIC, BoardLayout.WIDE, BoardLayout.LARGE}) {
+            Game game = new Game(layout);
+            assertFalse(game.isSolved());
+            assertEquals(layout.rows(), game.getBoard().length);
+            SplittableRandom random = new SplittableRandom(layout.cols());
+            int[] buffer = new int[layout.maxMoves()];
+            for (int step = 0; step < 500; step++) {
+                int count = game.getLegalGridMoves(buffer);
+                long tileMoves = game.getLegalMoves().stream()
+                        .filter(move -> game.getBoard()[move[0][0]][move[0][1]] != BoardLayout.BLOCKED)
+                        .count();
+                assertEquals(tileMoves, count);
+                int move = buffer[random.nextInt(count)];
+                int from = BoardLayout.moveFrom(move);
+                int to = BoardLayout.moveTo(move);
+                long before = game.positionKey();
+                assertTrue(game.move(layout.rowOf(from), layout.colOf(from), layout.rowOf(to), layout.colOf(to)));
+                assertNotEquals(before, game.positionKey());
+            }
+            long incremental = game.positionKey();
+            game.rehash();
+            assertEquals(game.positionKey(), incremental);
+        }
+    }
+
+    @Test
+    void testGoalCheck() {
+        BoardLayout layout = BoardLayout.LARGE;
+        Game game = new Game(layout, layout.goalBoard(), layout.rows() - 1, layout.cols() - 1, 0);
+        assertTrue(game.isSolved());
+        assertFalse(new Game().equals(game));
+        assertThrows(IllegalArgumentException.class, () -> PackedState.encode(game));
+    }
+}
@@ -0,0 +1,64 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceTableTest {
+
+    @Test
+    void testRankRoundTrip() {
+        assertEquals(259_459_200, StateRank.COUNT);
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            int rank = random.nextInt(StateRank.COUNT);
+            long state = StateRank.unrank(rank);
+            assertEquals(rank, StateRank.rank(state));
+        }
+        assertEquals(0, StateRank.rank(StateRank.unrank(0)));
+        assertEquals(StateRank.COUNT - 1, StateRank.rank(StateRank.unrank(StateRank.COUNT - 1)));
+        assertEquals(PackedState.START, StateRank.unrank(StateRank.rank(PackedState.START)));
+    }
+
+    @Test
+    void testShallowTableMatchesSearch(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve(DistanceTable.DEFAULT_FILE);
+        DistanceTableBuilder builder = new DistanceTableBuilder(4);
+        builder.buildTo(file);
+        long[] levels = builder.getLevelCounts();
+        assertEquals(5, levels.length);
+        assertEquals(1, levels[0]);
+        assertEquals(4, levels[1]); // 8 -> 9 and the three pocket moves
+
+        DistanceTable table = DistanceTable.open(file);
+        assertEquals(4, table.getMaxDistance());
+        assertEquals(0, table.distance(PackedState.SOLVED));
+        assertEquals(-1, table.distance(PackedState.START));
+        for (long seed = 0; seed < 20; seed++) {
+            long state = SolverTest.scramble(seed, 4);
+            int expected = new BreadthFirstSolver().solve(state).length();
+            assertEquals(expected, table.distance(state));
+
+            int move = table.bestMove(state);
+            if (expected > 0) {
+                long next = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+                assertEquals(expected - 1, table.distance(next));
+            } else {
+                assertEquals(-1, move);
+            }
+        }
+    }
+
+    @Test
+    void testOpenRejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> DistanceTable.open(file));
+    }
+}
@@ -0,0 +1,95 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalBreadthFirstSearchTest {
+
+    @TempDir
+    Path directory;
+
+    // Plain in-memory level count for comparison
+    private static long[] referenceCounts(StateSpace space, long root) {
+        Set<Long> visited = new HashSet<>(Set.of(root));
+        long[] frontier = {root};
+        long[] counts = {1};
+        long[] buffer = new long[space.maxSuccessors()];
+        while (true) {
+            long[] next = new long[0];
+            for (long state : frontier) {
+                int count = space.successors(state, buffer, 0);
+                for (int i = 0; i < count; i++) {
+                    if (visited.add(buffer[i])) {
+                        next = Arrays.copyOf(next, next.length + 1);
+                        next[next.length - 1] = buffer[i];
+                    }
+                }
+            }
+            if (next.length == 0) {
+                return counts;
+            }
+            counts = Arrays.copyOf(counts, counts.length + 1);
+            counts[counts.length - 1] = next.length;
+            frontier = next;
+        }
+    }
+
+    @Test
+    void testLevelCountsMatchInMemorySearch() throws IOException {
+        // tiny buffers force many runs and intermediate merges
+        ExternalBreadthFirstSearch search = new ExternalBreadthFirstSearch(directory, 64, 64, 3);
+        ExternalBreadthFirstSearch.Result result = search.explore(StateSpace.CLASSIC, PackedState.SOLVED, 12);
+
+        assertArrayEquals(new ParallelBreadthFirstSearch().explore(PackedState.SOLVED, 12), result.counts());
+        assertEquals(12, result.maxDistance());
+        assertTrue(result.bytesWritten() > result.positions() * Long.BYTES);
+    }
+
+    @Test
+    void testLayoutSpaceMatchesPackedState() throws IOException {
+        LayoutStateSpace space = new LayoutStateSpace(BoardLayout.CLASSIC);
+        ExternalBreadthFirstSearch search = new ExternalBreadthFirstSearch(directory, 1000, 4096, 4);
+
+        assertArrayEquals(search.explore(StateSpace.CLASSIC, PackedState.SOLVED, 10).counts(),
+                search.explore(space, space.goal(), 10).counts());
+    }
+
+    @Test
+    void testExploresSmallLayoutToTheEnd() throws IOException {
+        BoardLayout layout = BoardLayout.parse("X X/12 ", "X X/ 21");
+        LayoutStateSpace space = new LayoutStateSpace(layout);
+        ExternalBreadthFirstSearch.Result result = new ExternalBreadthFirstSearch(directory, 8, 16, 2)
+                .explore(space, space.goal());
+
+        assertArrayEquals(referenceCounts(space, space.goal()), result.counts());
+        // two tiles on four connected cells, all 4 * 3 placements reachable
+        assertEquals(12, result.positions());
+        try (Stream<Path> left = Files.list(directory)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void testLayoutSpaceRoundTrip() {
+        LayoutStateSpace space = new LayoutStateSpace(BoardLayout.WIDE);
+        char[][] start = BoardLayout.WIDE.startBoard();
+
+        assertArrayEquals(start, space.decode(space.encode(start)));
+        assertArrayEquals(BoardLayout.WIDE.goalBoard(), space.decode(space.goal()));
+    }
+
+    @Test
+    void testRejectsLayoutTooLargeToPack() {
+        assertThrows(IllegalArgumentException.class, () -> new LayoutStateSpace(BoardLayout.LARGE));
+    }
+}
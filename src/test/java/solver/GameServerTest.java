@@ -0,0 +1,89 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+
+    @Test
+    void testProtocol() throws Exception {
+        try (GameServer server = new GameServer(new SessionStore(8, Duration.ofMinutes(1)), 0)) {
+            String id = server.execute("NEW").substring(3);
+            assertEquals("OK 0 XXX X X XX/ 234567891", server.execute("BOARD " + id));
+            assertEquals("OK 1", server.execute("MOVE " + id + " 1 1 1 0"));
+            assertEquals("ILLEGAL", server.execute("MOVE " + id + " 1 1 1 0"));
+            assertEquals("ILLEGAL", server.execute("MOVE " + id + " 0 0 1 0"));
+            assertEquals("OK 1 XXX X X XX/2 34567891", server.execute("BOARD " + id));
+            assertEquals("OK", server.execute("RESET " + id));
+            assertEquals("OK", server.execute("CLOSE " + id));
+            assertEquals("UNKNOWN", server.execute("BOARD " + id));
+            assertTrue(server.execute("MOVE " + id + " 1").startsWith("ERROR"));
+            assertTrue(server.execute("BOARD x").startsWith("ERROR"));
+            assertTrue(server.execute("JUMP").startsWith("ERROR"));
+        }
+    }
+
+    @Test
+    void testReportsSolved() throws Exception {
+        try (GameServer server = new GameServer(new SessionStore(1, Duration.ofMinutes(1)), 0)) {
+            String id = server.execute("NEW").substring(3);
+            int moves = 0;
+            String response = null;
+            for (int code : new AStarSolver().solve(PackedState.START).getMoveCodes()) {
+                int from = PackedState.moveFrom(code);
+                int to = PackedState.moveTo(code);
+                response = server.execute("MOVE " + id + " " + PackedState.rowOf(from) + " "
+                        + PackedState.colOf(from) + " " + PackedState.rowOf(to) + " " + PackedState.colOf(to));
+                assertTrue(response.startsWith("OK " + ++moves), response);
+            }
+            assertEquals(75, moves);
+            assertEquals("OK 75 SOLVED", response);
+            assertEquals("OK 75", server.execute("BOARD " + id).substring(0, 5));
+        }
+    }
+
+    @Test
+    void testServesConnections() throws Exception {
+        try (GameServer server = new GameServer(new SessionStore(64, Duration.ofMinutes(1)), 0)) {
+            server.start();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                 BufferedReader reader = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                writer.print("NEW\nNEW\n");
+                writer.flush();
+                assertTrue(reader.readLine().startsWith("OK "));
+                assertTrue(reader.readLine().startsWith("OK "));
+                writer.println("QUIT");
+                assertEquals("BYE", reader.readLine());
+            }
+            LoadGenerator.Report report = new LoadGenerator(InetAddress.getLoopbackAddress().getHostAddress(),
+                    server.getPort()).run(50, 10, 20);
+            assertEquals(1000, report.moves());
+            assertEquals(0, report.errors());
+            assertTrue(report.p50() <= report.p99());
+        }
+    }
+
+    @Test
+    void testLoadGeneratorFailsWhenConnectFails() throws Exception {
+        int port;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            port = closed.getLocalPort();
+        }
+        LoadGenerator generator = new LoadGenerator(InetAddress.getLoopbackAddress().getHostAddress(), port);
+        assertThrows(ExecutionException.class,
+                () -> assertTimeoutPreemptively(Duration.ofSeconds(30), () -> generator.run(4, 2, 1)));
+    }
+}
@@ -11,6 +11,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import solver.Game;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -19,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -210,4 +214,75 @@ class GameTest {
 
 
     }
+
+    @Test
+    void testPositionKeyIgnoresMoveCount() {
+        Game direct = new Game();
+        direct.move(1, 1, 1, 0);
+
+        Game roundabout = new Game();
+        roundabout.move(1, 1, 1, 0);
+        roundabout.move(1, 0, 1, 1);
+        roundabout.move(1, 1, 1, 0);
+
+        assertEquals(direct.positionKey(), roundabout.positionKey());
+        assertTrue(direct.samePosition(roundabout));
+        assertEquals(0, Game.BY_POSITION.compare(direct, roundabout));
+        assertNotEquals(direct, roundabout); // equals still takes the move counter into account
+        assertNotEquals(new Game().positionKey(), direct.positionKey());
+        assertNotEquals(0, Game.BY_POSITION.compare(new Game(), direct));
+    }
+
+    @Test
+    void testIncrementalHashMatchesRecomputation() {
+        Game game = new Game();
+        for (int[][] move : new AStarSolver().solve(game).getMoves()) {
+            game.makeMove(move[0], move[1]);
+            long incremental = game.positionKey();
+            game.rehash();
+            assertEquals(game.positionKey(), incremental);
+        }
+        assertEquals(PackedState.decode(PackedState.SOLVED).positionKey(), game.positionKey());
+    }
+
+    @Test
+    void testHashCodeConsistentWithEquals() {
+        Game clonedGame = game.clone();
+        assertEquals(game.hashCode(), clonedGame.hashCode());
+        clonedGame.move(1, 1, 1, 0);
+        assertNotEquals(game, clonedGame);
+    }
+
+    @Test
+    void testHashCodeFollowsDirectEdits() {
+        Game edited = new Game();
+        Game moved = new Game();
+        edited.getBoard()[1][0] = '1';
+        edited.getBoard()[1][9] = ' ';
+        moved.getBoard()[1][0] = '1';
+        moved.getBoard()[1][9] = ' ';
+
+        assertEquals(edited, moved);
+        assertEquals(edited.hashCode(), moved.hashCode());
+        assertEquals(0, Game.BY_POSITION.compare(edited, moved));
+        assertTrue(new HashSet<>(List.of(edited)).contains(moved));
+        edited.getBoard()[1][0] = '2';
+        assertNotEquals(edited, moved);
+        assertNotEquals(0, Game.BY_POSITION.compare(edited, moved));
+    }
+
+    @Test
+    void testLegalMovesUseGridCellsAfterBlackBoxMoved() {
+        Game game = new Game();
+        assertTrue(game.move(0, 2, 0, 3), "A black box may slide into a pocket");
+        int[] buffer = new int[BoardLayout.CLASSIC.maxMoves()];
+        int count = game.getLegalGridMoves(buffer);
+        assertTrue(count > 0);
+        for (int i = 0; i < count; i++) {
+            int from = BoardLayout.moveFrom(buffer[i]);
+            int to = BoardLayout.moveTo(buffer[i]);
+            assertTrue(game.isLegalMove(new int[]{BoardLayout.CLASSIC.rowOf(from), BoardLayout.CLASSIC.colOf(from)},
+                    new int[]{BoardLayout.CLASSIC.rowOf(to), BoardLayout.CLASSIC.colOf(to)}));
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdaStarSolverTest {
+
+    private static long replay(long state, int[] moves) {
+        for (int move : moves) {
+            assertTrue(MoveGenerator.isLegalMove(state, PackedState.moveFrom(move), PackedState.moveTo(move)));
+            state = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+        }
+        return state;
+    }
+
+    @Test
+    void testBudgetStopsWithBoundAndPartialPath() {
+        IdaStarSolver.Result result = new IdaStarSolver().search(PackedState.START, Duration.ofMillis(50),
+                () -> false);
+        assertFalse(result.solved());
+        assertTrue(result.elapsedNanos() < Duration.ofSeconds(1).toNanos());
+        assertTrue(result.lowerBound() >= AStarSolver.heuristic(PackedState.START));
+        assertTrue(result.lowerBound() <= 75);
+        assertTrue(result.moves().length > 0);
+        replay(PackedState.START, result.moves());
+
+        Solution solution = result.toSolution();
+        assertTrue(solution.isFound());
+        assertFalse(solution.isComplete());
+    }
+
+    @Test
+    void testCancellationStopsSearch() {
+        IdaStarSolver.Result result = new IdaStarSolver().search(PackedState.START, null, () -> true);
+        assertFalse(result.solved());
+        assertEquals(1024, result.nodesExpanded());
+        assertTrue(result.lowerBound() >= AStarSolver.heuristic(PackedState.START));
+        assertTrue(result.lowerBound() <= 75);
+    }
+
+    @Test
+    void testSolvesWithinBudget() {
+        long state = SolverTest.scramble(7, 12);
+        IdaStarSolver.Result result = new IdaStarSolver().search(state, Duration.ofSeconds(30), () -> false);
+        assertTrue(result.solved());
+        assertEquals(new AStarSolver().solve(state).length(), result.moves().length);
+        assertEquals(result.moves().length, result.lowerBound());
+        assertTrue(PackedState.isSolved(replay(state, result.moves())));
+        assertTrue(result.toSolution().isComplete());
+    }
+
+    @Test
+    void testSolvedPositionNeedsNoSearch() {
+        IdaStarSolver.Result result = new IdaStarSolver().search(PackedState.SOLVED, null, () -> true);
+        assertTrue(result.solved());
+        assertEquals(0, result.moves().length);
+    }
+}
@@ -0,0 +1,64 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void testPutAndGetAcrossResize() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(map.putIfAbsent(i * 7919L, i));
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, map.get(i * 7919L));
+        }
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(3));
+    }
+
+    @Test
+    void testRemoveKeepsProbeRunsIntact() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        for (int i = 0; i < 5_000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 5_000; i += 2) {
+            assertEquals(i, map.remove(i));
+        }
+        assertEquals(LongIntHashMap.NO_VALUE, map.remove(0));
+        assertEquals(2_500, map.size());
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(i % 2 == 0 ? LongIntHashMap.NO_VALUE : i, map.get(i));
+        }
+        for (int i = 0; i < 5_000; i += 2) {
+            assertTrue(map.putIfAbsent(i, -i - 2));
+        }
+        assertEquals(5_000, map.size());
+        assertEquals(-6, map.get(4));
+    }
+
+    @Test
+    void testPutIfAbsentKeepsFirstValue() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertTrue(map.putIfAbsent(0L, 1));
+        assertFalse(map.putIfAbsent(0L, 2));
+        assertEquals(1, map.get(0L));
+
+        map.put(0L, 3);
+        assertEquals(3, map.get(0L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testClearAndNegativeKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(42L, 1);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(42L));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-5L, 1));
+    }
+}
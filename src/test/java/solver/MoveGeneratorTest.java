@@ -0,0 +1,69 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+
+    // Tile moves reported by Game.getLegalMoves(), as move codes
+    private static Set<Integer> gameTileMoves(Game game) {
+        Set<Integer> codes = new HashSet<>();
+        for (int[][] move : game.getLegalMoves()) {
+            int from = PackedState.cellOf(move[0][0], move[0][1]);
+            int to = PackedState.cellOf(move[1][0], move[1][1]);
+            if (from >= 0 && to >= 0) {
+                codes.add(PackedState.moveCode(from, to));
+            }
+        }
+        return codes;
+    }
+
+    @Test
+    void testMatchesGameAlongSolution() {
+        Game game = new Game();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        for (int code : new AStarSolver().solve(game).getMoveCodes()) {
+            long state = PackedState.encode(game);
+            int count = MoveGenerator.generate(state, buffer);
+            Set<Integer> generated = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                generated.add(buffer[i]);
+                assertTrue(MoveGenerator.isLegalMove(state, PackedState.moveFrom(buffer[i]),
+                        PackedState.moveTo(buffer[i])));
+            }
+            assertEquals(gameTileMoves(game), generated);
+            assertEquals(count, game.getLegalGridMoves(buffer));
+
+            int from = PackedState.moveFrom(code);
+            int to = PackedState.moveTo(code);
+            game.move(PackedState.rowOf(from), PackedState.colOf(from), PackedState.rowOf(to), PackedState.colOf(to));
+        }
+        assertTrue(game.isSolved());
+    }
+
+    @Test
+    void testForEachMatchesGenerate() {
+        long state = PackedState.START;
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(state, buffer);
+
+        Set<Integer> visited = new HashSet<>();
+        MoveGenerator.forEach(state, (from, to) -> visited.add(PackedState.moveCode(from, to)));
+        assertEquals(count, visited.size());
+        for (int i = 0; i < count; i++) {
+            assertTrue(visited.contains(buffer[i]));
+        }
+    }
+
+    @Test
+    void testMasks() {
+        assertEquals(0b1_1100_0000_0001, MoveGenerator.emptyMask(PackedState.START));
+        assertEquals(0b0_0011_1111_1110, MoveGenerator.occupiedMask(PackedState.START));
+        assertEquals((1 << 2) | (1 << 4) | (1 << 10), MoveGenerator.adjacentMask(3));
+        assertFalse(MoveGenerator.isLegalMove(PackedState.START, 1, 3));
+    }
+}
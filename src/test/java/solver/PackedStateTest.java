@@ -0,0 +1,66 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedStateTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        Game game = new Game();
+        long state = PackedState.encode(game);
+
+        Game decoded = PackedState.decode(state);
+        assertArrayEquals(game.getBoard(), decoded.getBoard());
+        assertEquals(state, PackedState.encode(decoded));
+    }
+
+    @Test
+    void testStartAndSolvedConstants() {
+        assertEquals(PackedState.encode(new Game()), PackedState.START);
+        assertTrue(PackedState.decode(PackedState.SOLVED).isSolved());
+        assertTrue(PackedState.isSolved(PackedState.SOLVED));
+        assertFalse(PackedState.isSolved(PackedState.START));
+        assertEquals(" 234567891|   ", PackedState.toString(PackedState.START));
+        assertArrayEquals(BoardLayout.CLASSIC.goalBoard(), PackedState.toBoard(PackedState.SOLVED));
+        assertArrayEquals(BoardLayout.CLASSIC.startBoard(), PackedState.toBoard(PackedState.START));
+    }
+
+    @Test
+    void testCellMapping() {
+        assertEquals(0, PackedState.cellOf(1, 0));
+        assertEquals(9, PackedState.cellOf(1, 9));
+        assertEquals(10, PackedState.cellOf(0, 3));
+        assertEquals(11, PackedState.cellOf(0, 5));
+        assertEquals(12, PackedState.cellOf(0, 7));
+        assertEquals(-1, PackedState.cellOf(0, 0));
+        assertEquals(-1, PackedState.cellOf(2, 0));
+        for (int cell = 0; cell < PackedState.CELLS; cell++) {
+            assertEquals(cell, PackedState.cellOf(PackedState.rowOf(cell), PackedState.colOf(cell)));
+        }
+    }
+
+    @Test
+    void testApplyMoveMatchesGame() {
+        Game game = new Game();
+        long state = PackedState.START;
+
+        game.makeMove(new int[]{1, 1}, new int[]{1, 0});
+        state = PackedState.applyMove(state, PackedState.cellOf(1, 1), PackedState.cellOf(1, 0));
+        assertEquals(PackedState.encode(game), state);
+
+        game.makeMove(new int[]{1, 3}, new int[]{0, 3});
+        state = PackedState.applyMove(state, PackedState.cellOf(1, 3), PackedState.cellOf(0, 3));
+        assertEquals(PackedState.encode(game), state);
+        assertEquals(4, PackedState.tileAt(state, 10));
+        assertTrue(PackedState.isEmpty(state, 3));
+    }
+
+    @Test
+    void testEncodeRejectsUnknownValues() {
+        char[][] board = PackedState.toBoard(PackedState.START);
+        board[1][4] = 'A';
+        assertThrows(IllegalArgumentException.class, () -> PackedState.encode(board));
+    }
+}
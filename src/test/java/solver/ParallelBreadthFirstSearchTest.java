@@ -0,0 +1,60 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelBreadthFirstSearchTest {
+
+    // Plain single-threaded level count for comparison
+    private static long[] referenceCounts(long root, int maxDepth) {
+        LongIntHashMap visited = new LongIntHashMap();
+        long[] frontier = {root};
+        visited.put(root, 0);
+        long[] counts = new long[maxDepth + 1];
+        counts[0] = 1;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long[] next = new long[frontier.length * MoveGenerator.MAX_MOVES];
+            int size = 0;
+            for (long state : frontier) {
+                int count = MoveGenerator.generate(state, moves);
+                for (int i = 0; i < count; i++) {
+                    long child = PackedState.applyMove(state, PackedState.moveFrom(moves[i]), PackedState.moveTo(moves[i]));
+                    if (visited.putIfAbsent(child, depth)) {
+                        next[size++] = child;
+                    }
+                }
+            }
+            frontier = Arrays.copyOf(next, size);
+            counts[depth] = size;
+        }
+        return counts;
+    }
+
+    @Test
+    void testLevelCountsMatchSequentialSearch() {
+        long[] expected = referenceCounts(PackedState.SOLVED, 14);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(expected, new ParallelBreadthFirstSearch(pool).explore(PackedState.SOLVED, 14));
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected, new ParallelBreadthFirstSearch().explore(PackedState.SOLVED, 14));
+    }
+
+    @Test
+    void testAtomicBitSet() {
+        AtomicBitSet bits = new AtomicBitSet(130);
+        assertFalse(bits.get(129));
+        assertTrue(bits.set(129));
+        assertFalse(bits.set(129));
+        assertTrue(bits.get(129));
+        assertFalse(bits.get(65));
+        assertEquals(130, bits.size());
+    }
+}
@@ -0,0 +1,69 @@
+package solver;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternDatabaseTest {
+    private static PatternDatabase database;
+
+    @BeforeAll
+    static void build() {
+        database = PatternDatabase.build(new int[]{1, 2, 3}, new int[]{4, 5, 6}, new int[]{7, 8, 9});
+    }
+
+    @Test
+    void testEstimateIsAdmissibleAndDominatesManhattan() {
+        assertEquals(0, database.estimate(PackedState.SOLVED));
+        for (long seed = 0; seed < 20; seed++) {
+            long state = SolverTest.scramble(seed, 14);
+            int estimate = database.estimate(state);
+            assertTrue(estimate <= new BreadthFirstSolver().solve(state).length(), PackedState.toString(state));
+            assertTrue(estimate >= AStarSolver.heuristic(state), PackedState.toString(state));
+        }
+        assertTrue(database.estimate(PackedState.START) <= 75);
+        assertTrue(database.estimate(PackedState.START) > AStarSolver.heuristic(PackedState.START));
+    }
+
+    @Test
+    void testFileRoundTrip(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve(PatternDatabase.DEFAULT_FILE);
+        database.write(file);
+        PatternDatabase loaded = PatternDatabase.load(file);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 1000; i++) {
+            long state = StateRank.unrank(random.nextInt(StateRank.COUNT));
+            assertEquals(database.estimate(state), loaded.estimate(state));
+        }
+    }
+
+    @Test
+    void testSearchStaysOptimalWithFewerNodes() {
+        long manhattanNodes = 0;
+        long patternNodes = 0;
+        for (long seed = 0; seed < 3; seed++) {
+            long state = SolverTest.scramble(seed, 100);
+            Solution manhattan = new AStarSolver().solve(state);
+            Solution patterns = new AStarSolver(database).solve(state);
+            assertEquals(manhattan.length(), patterns.length());
+            manhattanNodes += manhattan.getNodesExpanded();
+            patternNodes += patterns.getNodesExpanded();
+        }
+        assertTrue(patternNodes * 10 <= manhattanNodes, patternNodes + " vs " + manhattanNodes);
+
+        long state = SolverTest.scramble(11, 16);
+        assertEquals(new AStarSolver().solve(state).length(), new IdaStarSolver(database, null).solve(state).length());
+    }
+
+    @Test
+    void testRejectsOverlappingPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> PatternDatabase.build(new int[]{1, 2}, new int[]{2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> PatternDatabase.build(new int[]{0, 1}));
+    }
+}
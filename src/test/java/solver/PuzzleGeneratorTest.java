@@ -0,0 +1,39 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleGeneratorTest {
+    private final DistanceOracle oracle = DistanceOracle.of(new BreadthFirstSolver());
+
+    @Test
+    void testGeneratesExactDistance() {
+        PuzzleGenerator generator = new PuzzleGenerator(oracle, 1);
+        for (int distance = 0; distance <= 8; distance++) {
+            long state = generator.generate(distance);
+            assertEquals(distance, new AStarSolver().solve(state).length());
+        }
+    }
+
+    @Test
+    void testSameSeedSameSequence() {
+        PuzzleGenerator first = new PuzzleGenerator(oracle, 42);
+        PuzzleGenerator second = new PuzzleGenerator(oracle, 42);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(first.generate(4, 8), second.generate(4, 8));
+        }
+    }
+
+    @Test
+    void testBandAndValidation() {
+        PuzzleGenerator generator = new PuzzleGenerator(oracle, 7);
+        for (int i = 0; i < 10; i++) {
+            int distance = oracle.distance(generator.generate(3, 6));
+            assertTrue(distance >= 3 && distance <= 6);
+        }
+        assertTrue(generator.generateGame(2).getBoard().length > 0);
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(5, 4));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(-1));
+    }
+}
@@ -0,0 +1,101 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    private static Replay solvedReplay() {
+        long start = SolverTest.scramble(19, 40);
+        int[] codes = new AStarSolver().solve(PackedState.decode(start)).getMoveCodes();
+        byte[] moves = new byte[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            moves[i] = (byte) codes[i];
+        }
+        return new Replay(start, moves);
+    }
+
+    @Test
+    void testSolutionVerifies() {
+        Replay replay = solvedReplay();
+        Replay.Verification result = replay.verify();
+        assertTrue(result.solved());
+        assertEquals(-1, result.firstIllegal());
+        assertEquals(PackedState.SOLVED, result.finalState());
+        assertTrue(result.confirms(replay.length()));
+        assertFalse(result.confirms(replay.length() - 1));
+    }
+
+    @Test
+    void testIllegalMoveIsReported() {
+        Replay replay = solvedReplay();
+        byte[] bytes = replay.toBytes();
+        bytes[Replay.HEADER_SIZE + 3] = bytes[Replay.HEADER_SIZE + 2]; // repeats a move into a now occupied cell
+        Replay.Verification result = Replay.fromBytes(bytes).verify();
+        assertEquals(3, result.firstIllegal());
+        assertEquals(3, result.legalMoves());
+        assertEquals(replay.stateAfter(3), result.finalState());
+        assertFalse(result.solved());
+    }
+
+    @Test
+    void testCellsOutsideTheBoardAreIllegal() {
+        Replay replay = new Replay(PackedState.START, new byte[]{(byte) 0xFF});
+        assertEquals(0, replay.verify().firstIllegal());
+    }
+
+    @Test
+    void testTruncatedGameIsNotSolved() {
+        Replay replay = solvedReplay();
+        Replay.Verification result = Replay.verify(replay.getStart(), replay.toBytes(), Replay.HEADER_SIZE,
+                replay.length() - 1);
+        assertEquals(-1, result.firstIllegal());
+        assertFalse(result.solved());
+    }
+
+    @Test
+    void testRecorderMatchesGame() {
+        Game game = new Game();
+        Replay.Recorder recorder = new Replay.Recorder(PackedState.encode(game));
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        for (int i = 0; i < 200; i++) {
+            int move = buffer[i % MoveGenerator.generate(PackedState.encode(game), buffer)];
+            int from = PackedState.moveFrom(move);
+            int to = PackedState.moveTo(move);
+            game.makeMove(new int[]{PackedState.rowOf(from), PackedState.colOf(from)},
+                    new int[]{PackedState.rowOf(to), PackedState.colOf(to)});
+            recorder.add(PackedState.rowOf(from), PackedState.colOf(from), PackedState.rowOf(to), PackedState.colOf(to));
+        }
+        Replay replay = recorder.toReplay();
+        assertEquals(200, replay.length());
+        assertEquals(PackedState.encode(game), replay.verify().finalState());
+        assertThrows(IllegalArgumentException.class, () -> recorder.add(0, 0, 1, 0));
+    }
+
+    @Test
+    void testFileRoundTrip(@TempDir Path dir) throws IOException {
+        Replay replay = solvedReplay();
+        Path file = dir.resolve("game.rpl");
+        replay.write(file);
+        Replay read = Replay.read(file);
+        assertEquals(replay.getStart(), read.getStart());
+        assertArrayEquals(replay.toBytes(), read.toBytes());
+        assertEquals(Replay.HEADER_SIZE + replay.length(), read.toBytes().length);
+    }
+
+    @Test
+    void testRejectsMalformedBytes() {
+        byte[] bytes = solvedReplay().toBytes();
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(new byte[4]));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(truncated));
+        bytes[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(bytes));
+    }
+}
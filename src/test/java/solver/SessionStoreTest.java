@@ -0,0 +1,71 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final SessionStore store = new SessionStore(4, Duration.ofNanos(100), clock::get);
+
+    @Test
+    void testMovesAndReset() {
+        long id = store.create();
+        assertEquals(PackedState.START, store.state(id));
+        assertEquals(1, store.move(id, 1, 0));
+        assertEquals(SessionStore.ILLEGAL, store.move(id, 1, 0));
+        assertEquals(SessionStore.ILLEGAL, store.move(id, 5, 12));
+        assertEquals(1, store.moves(id));
+        assertTrue(store.reset(id));
+        assertEquals(PackedState.START, store.state(id));
+        assertEquals(0, store.moves(id));
+    }
+
+    @Test
+    void testMoveReportsSolvedPosition() {
+        long id = store.create();
+        int[] codes = new AStarSolver().solve(PackedState.START).getMoveCodes();
+        int result = 0;
+        for (int i = 0; i < codes.length; i++) {
+            result = store.move(id, PackedState.moveFrom(codes[i]), PackedState.moveTo(codes[i]));
+            assertEquals(i + 1, SessionStore.movesOf(result));
+            assertEquals(i == codes.length - 1, SessionStore.isSolved(result));
+        }
+        assertEquals(codes.length | SessionStore.SOLVED, result);
+        assertFalse(SessionStore.isSolved(SessionStore.UNKNOWN));
+        assertFalse(SessionStore.isSolved(SessionStore.ILLEGAL));
+    }
+
+    @Test
+    void testCapacityAndStaleIds() {
+        long[] ids = new long[4];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = store.create();
+        }
+        assertEquals(-1, store.create());
+        assertTrue(store.close(ids[2]));
+        assertFalse(store.close(ids[2]));
+        long reused = store.create();
+        assertNotEquals(ids[2], reused);
+        assertEquals(SessionStore.UNKNOWN, store.move(ids[2], 1, 0));
+        assertEquals(1, store.move(reused, 1, 0));
+        assertEquals(-1, store.state(-5));
+        assertEquals(-1, store.state(1L << 20));
+    }
+
+    @Test
+    void testEvictsIdleSessions() {
+        long idle = store.create();
+        long busy = store.create();
+        clock.set(80);
+        store.state(busy);
+        clock.set(150);
+        assertEquals(1, store.evictIdle());
+        assertEquals(-1, store.state(idle));
+        assertEquals(PackedState.START, store.state(busy));
+        assertEquals(1, store.size());
+    }
+}
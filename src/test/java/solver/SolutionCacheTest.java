@@ -0,0 +1,133 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionCacheTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        SolutionCache cache = new SolutionCache(3);
+        cache.put(1, 0x12, 5);
+        cache.put(2, 0x23, 6);
+        cache.put(3, 0x34, 7);
+        assertEquals(0x12 << 8 | 5, cache.get(1));
+        cache.put(4, 0x45, 8); // evicts 2, which was used least recently
+        assertEquals(SolutionCache.MISS, cache.get(2));
+        assertEquals(7, SolutionCache.distanceOf(cache.get(3)));
+        assertEquals(0x45, SolutionCache.moveOf(cache.get(4)));
+        assertEquals(3, cache.size());
+
+        SolutionCache.Stats stats = cache.stats();
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(0.75, stats.hitRate());
+    }
+
+    @Test
+    void testSnapshotKeepsEntriesAndOrder(@TempDir Path dir) throws IOException {
+        SolutionCache cache = new SolutionCache(100);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i, i);
+        }
+        cache.get(0);
+        Path file = dir.resolve("solutions.cache");
+        cache.snapshot(file);
+        assertEquals(SolutionCache.HEADER_SIZE + 100 * SolutionCache.ENTRY_SIZE, Files.size(file));
+
+        SolutionCache loaded = SolutionCache.load(file, 50); // keeps the 50 most recently used
+        assertEquals(50, loaded.size());
+        assertEquals(0 << 8 | 0, loaded.get(0));
+        assertEquals(99 << 8 | 99, loaded.get(99));
+        assertEquals(SolutionCache.MISS, loaded.get(50));
+        assertEquals(51, SolutionCache.distanceOf(loaded.get(51)));
+
+        assertEquals(0, SolutionCache.load(dir.resolve("missing"), 10).size());
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> SolutionCache.load(file, 10));
+    }
+
+    @Test
+    void testConcurrentUse() throws InterruptedException {
+        SolutionCache cache = new SolutionCache(1000);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    long state = (i * 7L + offset) % 3000;
+                    int entry = cache.get(state);
+                    if (entry == SolutionCache.MISS) {
+                        cache.put(state, 1, (int) (state % 200));
+                    } else if (SolutionCache.distanceOf(entry) != state % 200) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrong.get());
+        assertEquals(1000, cache.size());
+        assertTrue(cache.stats().evictions() > 0);
+    }
+
+    @Test
+    void testCachingSolverAnswersRepeatsFromCache() {
+        CachingSolver solver = new CachingSolver(new AStarSolver(), new SolutionCache(1024));
+        long state = SolverTest.scramble(4, 30);
+        Solution first = solver.solve(state);
+        assertTrue(first.getNodesExpanded() > 0);
+        assertEquals(first.length(), solver.getCache().size());
+
+        Solution again = solver.solve(state);
+        assertEquals(0, again.getNodesExpanded());
+        assertArrayEquals(first.getMoveCodes(), again.getMoveCodes());
+
+        int[] moves = first.getMoveCodes();
+        long next = PackedState.applyMove(state, PackedState.moveFrom(moves[0]), PackedState.moveTo(moves[0]));
+        Solution tail = solver.solve(next);
+        assertEquals(0, tail.getNodesExpanded());
+        assertEquals(first.length() - 1, tail.length());
+    }
+
+    @Test
+    void testPartialSolutionsAreNotCached() {
+        CachingSolver solver = new CachingSolver(state -> new Solution(new int[]{0x01}, false, 1, 0),
+                new SolutionCache(16));
+        assertFalse(solver.solve(PackedState.START).isComplete());
+        assertEquals(0, solver.getCache().size());
+    }
+
+    @Test
+    void testGivenUpPositionsAreCompletedInTheBackground() {
+        List<Runnable> background = new ArrayList<>();
+        CachingSolver solver = new CachingSolver(state -> new Solution(new int[]{0x01}, false, 1, 0),
+                new SolutionCache(1024), new BidirectionalSolver(), background::add);
+        long position = PackedState.applyMove(PackedState.SOLVED, 8, 9);
+        position = PackedState.applyMove(position, 7, 8);
+
+        assertFalse(solver.solve(position).isComplete());
+        assertEquals(0, solver.getCache().size());
+        assertEquals(1, background.size());
+        background.get(0).run();
+
+        Solution cached = solver.solve(position);
+        assertTrue(cached.isComplete());
+        assertEquals(2, cached.length());
+        assertEquals(0, cached.getNodesExpanded());
+        assertEquals(1, background.size());
+    }
+}
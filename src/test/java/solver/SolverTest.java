@@ -0,0 +1,89 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+
+    static Stream<Solver> solvers() {
+        return Stream.of(new BreadthFirstSolver(), new AStarSolver(), new IdaStarSolver(),
+                new BidirectionalSolver());
+    }
+
+    // Walks randomly away from the solved board, so the optimal length is at most the walk length
+    static long scramble(long seed, int steps) {
+        Random random = new Random(seed);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        long state = PackedState.SOLVED;
+        for (int i = 0; i < steps; i++) {
+            int move = buffer[random.nextInt(MoveGenerator.generate(state, buffer))];
+            state = PackedState.applyMove(state, PackedState.moveFrom(move), PackedState.moveTo(move));
+        }
+        return state;
+    }
+
+    @ParameterizedTest
+    @MethodSource("solvers")
+    void testSolvedPositionNeedsNoMoves(Solver solver) {
+        Solution solution = solver.solve(PackedState.decode(PackedState.SOLVED));
+        assertTrue(solution.isFound());
+        assertEquals(0, solution.length());
+    }
+
+    @ParameterizedTest
+    @MethodSource("solvers")
+    void testSolutionSolvesGame(Solver solver) {
+        Game game = PackedState.decode(scramble(1, 20));
+        Solution solution = solver.solve(game);
+
+        assertTrue(solution.isFound());
+        assertTrue(solution.length() <= 20);
+        assertTrue(solution.getNodesExpanded() > 0);
+        for (int[][] move : solution.getMoves()) {
+            assertTrue(game.isLegalMove(move[0], move[1]));
+            game.makeMove(move[0], move[1]);
+        }
+        assertTrue(game.isSolved());
+    }
+
+    @Test
+    void testEnginesAgreeOnOptimalLength() {
+        for (long seed = 0; seed < 10; seed++) {
+            long state = scramble(seed, 16);
+            int optimum = new BreadthFirstSolver().solve(state).length();
+            assertEquals(optimum, new AStarSolver().solve(state).length(),
+                    "Length mismatch for " + PackedState.toString(state));
+            assertEquals(optimum, new IdaStarSolver().solve(state).length(),
+                    "Length mismatch for " + PackedState.toString(state));
+            assertEquals(optimum, new BidirectionalSolver().solve(state).length(),
+                    "Length mismatch for " + PackedState.toString(state));
+        }
+    }
+
+    @Test
+    void testBidirectionalExpandsFewerPositions() {
+        long state = scramble(1, 200); // 26 moves from the goal
+        Solution forward = new BreadthFirstSolver().solve(state);
+        Solution bidirectional = new BidirectionalSolver().solve(state);
+        assertEquals(forward.length(), bidirectional.length());
+        assertTrue(bidirectional.getNodesExpanded() * 5 < forward.getNodesExpanded(),
+                bidirectional.getNodesExpanded() + " vs " + forward.getNodesExpanded());
+    }
+
+    @Test
+    void testStartPositionOptimum() {
+        assertEquals(75, new AStarSolver().solve(new Game()).length());
+    }
+
+    @Test
+    void testHeuristicIsZeroOnlyWhenSolved() {
+        assertEquals(0, AStarSolver.heuristic(PackedState.SOLVED));
+        assertTrue(AStarSolver.heuristic(PackedState.START) > 0);
+    }
+}